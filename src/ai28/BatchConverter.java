@@ -0,0 +1,179 @@
+package ai28;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+// --- 폴더 단위 일괄 변환 (GUI / AWT 없이 실행) ---
+// java -cp bin ai28.BatchConverter <입력 폴더> [출력 폴더] [--format rchart|lines|json] [--lanes nearest|chord|hand|legacy]
+//                                   [--threads N] [--force] [--scaling]
+// 편집기의 loadMidiFile 과 같은 MidiChartReader(pitch -> 레인, tick 그대로) 로 읽어서
+// 파일마다 하나씩 fork-join 풀에서 병렬로 변환한다.
+// 출력이 입력보다 새로우면 건너뛴다 (--force 로 무시). --scaling 은 스레드 수를 1, 2, 4 ... 로 늘려 가며 처리량을 잰다.
+class BatchConverter {
+    enum Format {
+        RCHART(ChartFile.EXTENSION), LINES(".txt"), JSON(".json");
+        final String extension;
+        Format(String extension) { this.extension = extension; }
+    }
+
+    // 파일 하나의 결과
+    static class Outcome {
+        final Path input;
+        final boolean skipped;
+        final int notes, displaced, dropped;
+        final long nanos;
+        final String error;
+        Outcome(Path input, boolean skipped, int notes, long nanos, String error) { this(input, skipped, notes, 0, 0, nanos, error); }
+        Outcome(Path input, boolean skipped, int notes, int displaced, int dropped, long nanos, String error) {
+            this.input = input;
+            this.skipped = skipped;
+            this.notes = notes;
+            this.displaced = displaced;
+            this.dropped = dropped;
+            this.nanos = nanos;
+            this.error = error;
+        }
+    }
+
+    private final Path outDir;
+    private final Format format;
+    private final boolean force;
+    private final LaneAllocator.Policy lanePolicy;
+    // ChartExporter 는 버퍼를 들고 있으므로 작업 스레드마다 하나
+    private final ThreadLocal<ChartExporter> exporters = ThreadLocal.withInitial(ChartExporter::new);
+
+    BatchConverter(Path outDir, Format format, boolean force, LaneAllocator.Policy lanePolicy) {
+        this.outDir = outDir;
+        this.format = format;
+        this.force = force;
+        this.lanePolicy = lanePolicy;
+    }
+
+    static List<Path> listMidiFiles(Path dir) throws IOException {
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(p -> {
+                String name = p.getFileName().toString().toLowerCase(Locale.ROOT);
+                return Files.isRegularFile(p) && (name.endsWith(".mid") || name.endsWith(".midi"));
+            }).sorted().toList();
+        }
+    }
+
+    Path outputFor(Path input) {
+        String name = input.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return outDir.resolve((dot > 0 ? name.substring(0, dot) : name) + format.extension);
+    }
+
+    Outcome convert(Path input) {
+        long t0 = System.nanoTime();
+        Path output = outputFor(input);
+        try {
+            if (!force && Files.exists(output)
+                    && Files.getLastModifiedTime(output).compareTo(Files.getLastModifiedTime(input)) >= 0) {
+                return new Outcome(input, true, 0, System.nanoTime() - t0, null);
+            }
+            MidiChartReader.Result r = new MidiChartReader(lanePolicy)
+                    .read(input.toFile(), MidiChartReader.SILENT);
+            switch (format) {
+                case RCHART -> ChartFile.save(output, r.chart, r.tempoMap, MidiChartReader.DEFAULT_TICKS_PER_ROW);
+                case LINES -> exporters.get().export(r.chart, output, ChartExporter.Format.LINES);
+                case JSON -> exporters.get().export(r.chart, output, ChartExporter.Format.JSON_ARRAY);
+            }
+            return new Outcome(input, false, r.chart.size(), r.displaced, r.dropped, System.nanoTime() - t0, null);
+        } catch (Exception e) {
+            return new Outcome(input, false, 0, System.nanoTime() - t0, e.toString());
+        }
+    }
+
+    // 파일마다 작업 하나. 결과는 입력 순서대로
+    List<Outcome> convertAll(List<Path> inputs, int threads) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<Callable<Outcome>> tasks = new ArrayList<>(inputs.size());
+            for (Path p : inputs) tasks.add(() -> convert(p));
+            List<Outcome> out = new ArrayList<>(inputs.size());
+            for (Future<Outcome> f : pool.invokeAll(tasks)) out.add(f.get());
+            return out;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static void printOutcome(Outcome o) {
+        String status = o.error != null ? "오류 " + o.error : o.skipped ? "최신 (건너뜀)"
+                : o.notes + "개 노트 (레인 이동 " + o.displaced + ", 버림 " + o.dropped + ")";
+        System.out.printf(Locale.ROOT, "%9.1f ms  %-40s %s%n", o.nanos / 1e6, o.input.getFileName(), status);
+    }
+
+    static void printSummary(List<Outcome> outcomes, long wallNanos, int threads) {
+        int converted = 0, skipped = 0, failed = 0;
+        long notes = 0;
+        for (Outcome o : outcomes) {
+            if (o.error != null) failed++;
+            else if (o.skipped) skipped++;
+            else { converted++; notes += o.notes; }
+        }
+        double sec = wallNanos / 1e9;
+        System.out.printf(Locale.ROOT, "스레드 %d: 변환 %d, 건너뜀 %d, 실패 %d / %.2f s (%.1f 파일/s, %.0f 노트/s)%n",
+                threads, converted, skipped, failed, sec, converted / sec, notes / sec);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        List<String> positional = new ArrayList<>();
+        Format format = Format.RCHART;
+        LaneAllocator.Policy lanes = LaneAllocator.NEAREST_FREE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean force = false, scaling = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--format" -> format = Format.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                case "--lanes" -> lanes = LaneAllocator.policyOf(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--force" -> force = true;
+                case "--scaling" -> scaling = true;
+                default -> positional.add(args[i]);
+            }
+        }
+        if (positional.isEmpty()) {
+            System.err.println("사용법: BatchConverter <입력 폴더> [출력 폴더] [--format rchart|lines|json] [--lanes nearest|chord|hand|legacy]"
+                    + " [--threads N] [--force] [--scaling]");
+            System.exit(2);
+        }
+        Path inDir = Path.of(positional.get(0));
+        Path outDir = positional.size() > 1 ? Path.of(positional.get(1)) : inDir;
+        Files.createDirectories(outDir);
+        List<Path> inputs = listMidiFiles(inDir);
+        System.out.println(inputs.size() + "개 MIDI 파일 -> " + outDir + " (" + format + ")");
+
+        if (scaling) {
+            // 매번 전부 다시 변환해야 비교가 되므로 --force 로 돌린다. 첫 회는 워밍업
+            BatchConverter converter = new BatchConverter(outDir, format, true, lanes);
+            converter.convertAll(inputs, 1);
+            int max = Runtime.getRuntime().availableProcessors();
+            for (int t = 1; ; t = Math.min(t * 2, max)) {
+                long t0 = System.nanoTime();
+                List<Outcome> outcomes = converter.convertAll(inputs, t);
+                printSummary(outcomes, System.nanoTime() - t0, t);
+                if (t == max) break;
+            }
+            return;
+        }
+
+        BatchConverter converter = new BatchConverter(outDir, format, force, lanes);
+        long t0 = System.nanoTime();
+        List<Outcome> outcomes = converter.convertAll(inputs, threads);
+        long wall = System.nanoTime() - t0;
+        outcomes.forEach(BatchConverter::printOutcome);
+        printSummary(outcomes, wall, threads);
+        if (outcomes.stream().anyMatch(o -> o.error != null)) System.exit(1);
+    }
+}
@@ -0,0 +1,78 @@
+package ai28;
+
+import java.util.Arrays;
+
+// --- 실행 취소 단위 하나: 바뀐 셀만 (key, 이전 셀, 새 셀) 으로 기록 ---
+// ai10~ai15 의 UndoItem 을 셀 개수 제한 없이 일반화한 것.
+// 전체 그리드를 복사하지 않으므로 크기는 바뀐 노트 수에 비례한다.
+class ChartEdit {
+    final String label;
+    final long createdAt = System.currentTimeMillis();
+
+    private long[] keys = new long[4];
+    private int[] before = new int[4];
+    private int[] after = new int[4];
+    private int count;
+
+    ChartEdit(String label) { this.label = label; }
+
+    int count() { return count; }
+    long keyAt(int i) { return keys[i]; }
+    int beforeAt(int i) { return before[i]; }
+    int afterAt(int i) { return after[i]; }
+
+    // 같은 키가 여러 번 기록되면 적용은 순서대로, 취소는 역순으로 처리된다
+    void record(long tick, int lane, int oldCell, int newCell) {
+        if (oldCell == newCell) return;
+        if (count == keys.length) {
+            int cap = count * 2;
+            keys = Arrays.copyOf(keys, cap);
+            before = Arrays.copyOf(before, cap);
+            after = Arrays.copyOf(after, cap);
+        }
+        keys[count] = NoteChart.key(tick, lane);
+        before[count] = oldCell;
+        after[count] = newCell;
+        count++;
+    }
+
+    // 현재 차트 값을 이전 값으로 기록하면서 변경도 같이 등록
+    void set(NoteChart chart, long tick, int lane, int newCell) {
+        record(tick, lane, chart.getCell(tick, lane), newCell);
+    }
+
+    // 직전 편집 뒤에 이어 붙이기 (연속 삭제 등을 한 단계로 묶을 때)
+    void append(ChartEdit next) {
+        for (int i = 0; i < next.count; i++) {
+            long k = next.keys[i];
+            record(NoteChart.tickOf(k), NoteChart.laneOf(k), next.before[i], next.after[i]);
+        }
+    }
+
+    void apply(NoteChart chart) { chart.setAll(keys, after, count); }
+
+    void revert(NoteChart chart) {
+        // 역순으로 뒤집어 두면 setAll 의 '마지막 값 우선' 규칙이 그대로 맞는다
+        long[] rk = new long[count];
+        int[] rv = new int[count];
+        for (int i = 0; i < count; i++) {
+            rk[i] = keys[count - 1 - i];
+            rv[i] = before[count - 1 - i];
+        }
+        chart.setAll(rk, rv, count);
+    }
+
+    long minTick() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) min = Math.min(min, NoteChart.tickOf(keys[i]));
+        return min;
+    }
+
+    long maxTick() {
+        long max = -1;
+        for (int i = 0; i < count; i++) max = Math.max(max, NoteChart.tickOf(keys[i]));
+        return max;
+    }
+
+    long sizeInBytes() { return 64 + (long) keys.length * 16; }
+}
@@ -0,0 +1,113 @@
+package ai28;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// --- 노트 목록 텍스트 내보내기 (output.txt / JSON) ---
+// 호출하는 쪽이 넘긴 스냅샷만 읽으므로 어느 스레드에서나 실행해도 된다.
+// 문자열을 만들지 않고 숫자/계이름을 바이트로 직접 큰 버퍼에 쓰고,
+// 같은 폴더의 임시 파일에 다 쓴 뒤 force 하고 원자적 이름 변경으로 교체한다.
+// 중간에 죽어도 기존 파일은 그대로 남는다.
+class ChartExporter {
+    enum Format {
+        // 기존 output.txt 형식: 한 줄에 노트 하나, 줄 끝마다 쉼표
+        LINES,
+        // 올바른 JSON 배열
+        JSON_ARRAY
+    }
+
+    private static final int BUFFER_BYTES = 1 << 18;
+    private static final byte[][] NAME_BYTES = new byte[128][];
+    static {
+        for (int p = 0; p < 128; p++) NAME_BYTES[p] = NoteData.of(p).getNoteName().getBytes(StandardCharsets.US_ASCII);
+    }
+    private static final byte[] NAME_PREFIX = ascii("{\"name\":\"");
+    private static final byte[] PITCH_PREFIX = ascii("\", \"pitch\":");
+    private static final byte[] TICK_PREFIX = ascii(", \"t\":");
+    // [추가] 롱노트만 길이를 붙인다 (치는 노트 줄은 예전 형식 그대로)
+    private static final byte[] DURATION_PREFIX = ascii(", \"dur\":");
+
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final byte[] digits = new byte[20];
+    private FileChannel channel;
+
+    private static byte[] ascii(String s) { return s.getBytes(StandardCharsets.US_ASCII); }
+
+    // 스냅샷의 모든 노트를 tick, 레인 순서로 target 에 쓴다. 쓴 노트 수를 돌려준다
+    int export(NoteChart snapshot, Path target, Format format) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel = ch;
+                buf.clear();
+                writeNotes(snapshot, format);
+                flush();
+                ch.force(false);
+            } finally {
+                channel = null;
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return snapshot.size();
+    }
+
+    private void writeNotes(NoteChart chart, Format format) throws IOException {
+        int n = chart.size();
+        boolean json = format == Format.JSON_ARRAY;
+        if (json) put((byte) '[').put((byte) '\n');
+        for (int i = 0; i < n; i++) {
+            int pitch = chart.pitchAt(i);
+            put(NAME_PREFIX).put(NAME_BYTES[pitch]).put(PITCH_PREFIX).putNumber(pitch)
+                .put(TICK_PREFIX).putNumber(chart.tickAt(i));
+            if (chart.durationAt(i) > 0) put(DURATION_PREFIX).putNumber(chart.durationAt(i));
+            put((byte) '}');
+            if (!json || i < n - 1) put((byte) ',');
+            put((byte) '\n');
+        }
+        if (json) put((byte) ']').put((byte) '\n');
+    }
+
+    private ChartExporter put(byte b) throws IOException {
+        if (!buf.hasRemaining()) flush();
+        buf.put(b);
+        return this;
+    }
+
+    private ChartExporter put(byte[] bytes) throws IOException {
+        if (buf.remaining() < bytes.length) flush();
+        buf.put(bytes);
+        return this;
+    }
+
+    // 음수는 나오지 않는다 (tick, pitch, 길이 모두 0 이상)
+    private ChartExporter putNumber(long v) throws IOException {
+        int pos = digits.length;
+        do {
+            digits[--pos] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        if (buf.remaining() < digits.length - pos) flush();
+        buf.put(digits, pos, digits.length - pos);
+        return this;
+    }
+
+    private void flush() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) channel.write(buf);
+        buf.clear();
+    }
+}
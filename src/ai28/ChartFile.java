@@ -0,0 +1,131 @@
+package ai28;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.sound.midi.*;
+
+// --- 바이너리 차트 파일 (.rchart) ---
+// [헤더 32바이트] magic "RCHT", version, resolution, ticksPerRow, noteCount, tempoCount, tag(long)
+// [템포 구간]   tempoCount x (long tick, int mpq, int 예약)  -> 16바이트 단위라 노트 영역이 8바이트 정렬된다
+// [노트]       noteCount x long key, noteCount x byte pitch, noteCount x byte velocity
+//              [추가] 버전 2: 이어서 noteCount x char 길이 (롱노트, 0 이면 치는 노트). 버전 1 파일은 모두 치는 노트로 읽는다
+// 노트는 key(tick<<3 | lane) 오름차순으로 저장되므로 읽을 때 파싱/정렬 없이 배열로 바로 복사한다.
+// 모든 값은 little endian.
+final class ChartFile {
+    static final int MAGIC = 0x54484352; // "RCHT" (little endian)
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 32;
+    static final int TEMPO_BYTES = 16;
+    static final String EXTENSION = ".rchart";
+    // tag 위치: 호출하는 쪽이 자유롭게 쓰는 값 (EditJournal 은 세대 번호를 넣는다)
+    private static final int TAG_OFFSET = 24;
+
+    private ChartFile() {}
+
+    static boolean isChartFile(Path path) { return path.getFileName().toString().toLowerCase().endsWith(EXTENSION); }
+
+    static void save(Path path, NoteChart chart, TempoMap tempoMap, int ticksPerRow) throws IOException {
+        save(path, chart, tempoMap, ticksPerRow, 0);
+    }
+
+    static void save(Path path, NoteChart chart, TempoMap tempoMap, int ticksPerRow, long tag) throws IOException {
+        NoteChart snap = chart.snapshot();
+        int n = snap.size(), tempos = tempoMap.segmentCount();
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + tempos * TEMPO_BYTES + n * noteBytes(VERSION)).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(tempoMap.getResolution()).putInt(ticksPerRow)
+           .putInt(n).putInt(tempos).putLong(tag);
+        for (int i = 0; i < tempos; i++) buf.putLong(tempoMap.segmentTick(i)).putInt(tempoMap.segmentMpq(i)).putInt(0);
+        for (int i = 0; i < n; i++) buf.putLong(snap.keyAt(i));
+        for (int i = 0; i < n; i++) buf.put((byte) snap.pitchAt(i));
+        for (int i = 0; i < n; i++) buf.put((byte) snap.velocityAt(i));
+        for (int i = 0; i < n; i++) buf.putChar((char) snap.durationAt(i));
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(false);
+        }
+    }
+
+    // 노트 하나의 바이트 수 (key + pitch + velocity [+ 길이])
+    private static int noteBytes(int version) { return version >= 2 ? 12 : 10; }
+
+    static long readTag(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (buf.hasRemaining() && ch.read(buf) >= 0) {}
+            if (buf.position() < HEADER_BYTES || buf.getInt(0) != MAGIC) throw new IOException("차트 파일이 아님: " + path);
+            return buf.getLong(TAG_OFFSET);
+        }
+    }
+
+    // 파일을 메모리 매핑해 배열로 한 번에 복사한다. 형식이 맞지 않으면 IOException
+    static MidiChartReader.Result load(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = ch.size();
+            if (fileSize < HEADER_BYTES) throw new IOException("차트 파일이 아님: " + path);
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt() != MAGIC) throw new IOException("차트 파일이 아님: " + path);
+            int version = map.getInt();
+            if (version < 1 || version > VERSION) throw new IOException("지원하지 않는 버전: " + version);
+            int resolution = map.getInt();
+            map.getInt(); // ticksPerRow: 행 간격은 편집기 설정을 따른다 (tick 은 그대로 유효)
+            int n = map.getInt(), tempos = map.getInt();
+            if (n < 0 || tempos < 1 || resolution <= 0
+                    || fileSize != HEADER_BYTES + (long) tempos * TEMPO_BYTES + (long) n * noteBytes(version)) {
+                throw new IOException("손상된 차트 파일: " + path);
+            }
+            map.position(HEADER_BYTES);
+            long[] ticks = new long[tempos];
+            int[] mpqs = new int[tempos];
+            for (int i = 0; i < tempos; i++) {
+                ticks[i] = map.getLong();
+                mpqs[i] = map.getInt();
+                map.getInt();
+            }
+            long[] keys = new long[n];
+            byte[] pitches = new byte[n];
+            byte[] velocities = new byte[n];
+            map.asLongBuffer().get(keys);
+            map.position(map.position() + n * 8);
+            map.get(pitches).get(velocities);
+            char[] durations = new char[n];
+            if (version >= 2) map.asCharBuffer().get(durations);
+
+            NoteChart chart;
+            try {
+                chart = NoteChart.wrap(keys, pitches, velocities, durations, n);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("손상된 차트 파일: " + e.getMessage());
+            }
+            TempoMap tempoMap = TempoMap.build(resolution, ticks, mpqs, tempos);
+            return new MidiChartReader.Result(toSequence(chart, tempoMap), chart, tempoMap);
+        }
+    }
+
+    // 원본 MIDI 가 없는 차트를 재생하기 위한 시퀀스. 소리는 HitSoundScheduler 가 차트에서 직접 내므로
+    // 시퀀서는 시계 역할만 하면 된다: 템포 이벤트 + 곡 끝 표시만 넣어 노트 수와 무관하게 바로 만든다.
+    static Sequence toSequence(NoteChart chart, TempoMap tempoMap) throws IOException {
+        try {
+            Sequence seq = new Sequence(Sequence.PPQ, tempoMap.getResolution());
+            Track track = seq.createTrack();
+            for (int i = 0; i < tempoMap.segmentCount(); i++) {
+                int mpq = tempoMap.segmentMpq(i);
+                byte[] d = {(byte) (mpq >> 16), (byte) (mpq >> 8), (byte) mpq};
+                track.add(new MidiEvent(new MetaMessage(0x51, d, 3), tempoMap.segmentTick(i)));
+            }
+            long end = Math.max(0, chart.lastTick()) + tempoMap.getResolution() * 4L;
+            track.add(new MidiEvent(new MetaMessage(0x06, "end".getBytes(), 3), end));
+            return seq;
+        } catch (InvalidMidiDataException e) {
+            throw new IOException("재생용 시퀀스 생성 실패", e);
+        }
+    }
+}
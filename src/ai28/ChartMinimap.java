@@ -0,0 +1,159 @@
+package ai28;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.event.TableModelEvent;
+
+// --- 미니맵: 차트 전체의 노트 밀도를 세로 띠 하나에 ---
+// 아래가 tick 0, 위가 마지막 행 (테이블과 같은 방향). 픽셀 줄 하나가 덮는 tick 구간의 레인별 노트 수를 진하기로 칠한다.
+// 그림은 BufferedImage 에 한 번 그려 두고, 편집이 오면 모델 이벤트의 행 구간이 닿는 픽셀 줄만 다시 칠한다.
+// 매 프레임(재생 스크롤)에는 캐시 이미지를 한 번 붙이고 뷰포트 사각형만 그린다.
+// 누르거나 끌면 그 자리의 tick 으로 리스너를 부른다.
+class ChartMinimap extends JComponent {
+    interface Listener { void seek(long tick); }
+
+    static final int WIDTH = 48;
+    private static final int LANES = NoteChart.COLUMN_COUNT, LANE_W = 5;
+    // 불투명색: 반투명 선은 소프트웨어 경로에서 픽셀마다 섞어 그려 프레임마다 수백 us 가 든다
+    private static final Color VIEWPORT_COLOR = new Color(200, 200, 200);
+    private static final int BACKGROUND_RGB = 0x141414;
+    // [레인][진하기 1..LEVELS] 의 RGB (노트 1개 / 2개 / 3~4개 / 5개 이상)
+    private static final int LEVELS = 4;
+    private static final int[][] LANE_RGB = new int[LANES][LEVELS + 1];
+    static {
+        for (int lane = 0; lane < LANES; lane++) {
+            Color base = NoteCellRenderer.octaveColor(lane, 4);
+            LANE_RGB[lane][0] = BACKGROUND_RGB;
+            for (int level = 1; level <= LEVELS; level++) {
+                float f = 0.25f + 0.75f * level / LEVELS;
+                LANE_RGB[lane][level] = (int) (base.getRed() * f) << 16 | (int) (base.getGreen() * f) << 8 | (int) (base.getBlue() * f);
+            }
+        }
+    }
+
+    private final ChartTableModel model;
+    private final TickScale scale;
+    private final JViewport viewport;
+    private Listener listener;
+
+    private BufferedImage image;
+    private int[] pixels;
+    // 픽셀 줄 x 레인 노트 수 (다시 칠할 때 재사용)
+    private int[] counts = new int[0];
+    // 다음 paint 에서 다시 칠할 픽셀 줄 [dirtyFrom, dirtyTo] (dirtyFrom > dirtyTo 면 없음)
+    private int dirtyFrom = Integer.MAX_VALUE, dirtyTo = Integer.MIN_VALUE;
+    private final Rectangle clip = new Rectangle();
+
+    ChartMinimap(ChartTableModel model, TickScale scale, JViewport viewport) {
+        this.model = model;
+        this.scale = scale;
+        this.viewport = viewport;
+        setOpaque(true);
+
+        model.addTableModelListener(this::modelChanged);
+        scale.addListener(this::repaint);
+        viewport.addChangeListener(e -> repaint());
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override public void mousePressed(MouseEvent e) { seek(e.getY()); }
+            @Override public void mouseDragged(MouseEvent e) { seek(e.getY()); }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    void setListener(Listener listener) { this.listener = listener; }
+
+    private void seek(int y) {
+        if (listener != null && getHeight() > 0) listener.seek(Math.max(0, (long) ((getHeight() - 0.5 - y) / pixelsPerTick())));
+    }
+
+    @Override public Dimension getPreferredSize() { return new Dimension(WIDTH, 100); }
+
+    // --- tick <-> 미니맵 픽셀 줄: [0, 위쪽 끝 tick) 를 높이 전체에, 줄 y 는 floor(tick * ppt) = h - 1 - y 인 tick 들 ---
+    private double pixelsPerTick() { return (double) getHeight() / Math.max(1, model.rowToTick(0) + model.getTicksPerRow()); }
+
+    private int lineOf(long tick) { return getHeight() - 1 - (int) Math.min(Integer.MAX_VALUE, (long) (tick * pixelsPerTick())); }
+
+    // 줄 y 가 덮는 tick 구간의 시작 / 끝 (끝은 포함하지 않음)
+    private long lineStart(int y) { return (long) Math.ceil((getHeight() - 1 - y) / pixelsPerTick()); }
+    private long lineEnd(int y) { return (long) Math.ceil((getHeight() - y) / pixelsPerTick()); }
+
+    // --- 바뀐 행이 닿는 픽셀 줄만 더럽힌다. 행 수 / 차트가 통째로 바뀌면 전체 ---
+    private void modelChanged(TableModelEvent e) {
+        if (e.getFirstRow() == TableModelEvent.HEADER_ROW || e.getLastRow() == Integer.MAX_VALUE) {
+            image = null;
+            repaint();
+            return;
+        }
+        if (image == null) return;
+        long fromTick = model.rowToTick(e.getLastRow()), toTick = model.rowToTick(e.getFirstRow()) + model.getTicksPerRow();
+        int top = Math.max(0, lineOf(toTick - 1));
+        int bottom = Math.min(image.getHeight() - 1, lineOf(Math.max(0, fromTick)));
+        if (top > bottom) return;
+        dirtyFrom = Math.min(dirtyFrom, top);
+        dirtyTo = Math.max(dirtyTo, bottom);
+        repaint(0, top, getWidth(), bottom - top + 1);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int w = getWidth(), h = getHeight();
+        if (w <= 0 || h <= 0) return;
+        if (image == null || image.getWidth() != w || image.getHeight() != h) {
+            image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            if (counts.length < h * LANES) counts = new int[h * LANES];
+            render(0, h - 1);
+        } else if (dirtyFrom <= dirtyTo) {
+            render(dirtyFrom, dirtyTo);
+        }
+        dirtyFrom = Integer.MAX_VALUE;
+        dirtyTo = Integer.MIN_VALUE;
+
+        g.getClipBounds(clip);
+        if (clip.isEmpty()) clip.setBounds(0, 0, w, h);
+        g.drawImage(image, clip.x, clip.y, clip.x + clip.width, clip.y + clip.height, clip.x, clip.y, clip.x + clip.width, clip.y + clip.height, null);
+
+        // 뷰포트 사각형 (스크롤 / 배율 기준)
+        int viewTop = viewport.getViewPosition().y;
+        int top = lineOf((long) Math.max(0, scale.yToTick(viewTop)));
+        int bottom = lineOf((long) Math.max(0, scale.yToTick(viewTop + viewport.getHeight())));
+        g.setColor(VIEWPORT_COLOR);
+        g.drawRect(0, top, w - 1, Math.max(1, bottom - top));
+    }
+
+    // 픽셀 줄 top..bottom 을 다시 센다: 그 tick 구간의 노트만 한 번 훑는다
+    private void render(int top, int bottom) {
+        int w = image.getWidth();
+        Arrays.fill(counts, top * LANES, (bottom + 1) * LANES, 0);
+        NoteChart chart = model.getChart();
+        long toTick = lineEnd(top);
+        for (int i = chart.ceilIndex(Math.max(0, lineStart(bottom))), n = chart.size(); i < n; i++) {
+            long tick = chart.tickAt(i);
+            if (tick >= toTick) break;
+            int y = lineOf(tick);
+            if (y >= top && y <= bottom) counts[y * LANES + chart.laneAt(i)]++;
+        }
+        int x0 = Math.max(0, (w - LANES * LANE_W) / 2);
+        for (int y = top; y <= bottom; y++) {
+            int row = y * w;
+            Arrays.fill(pixels, row, row + w, BACKGROUND_RGB);
+            for (int lane = 0; lane < LANES; lane++) {
+                int c = counts[y * LANES + lane];
+                if (c == 0) continue;
+                int rgb = LANE_RGB[lane][c >= 5 ? 4 : c >= 3 ? 3 : c];
+                int x = x0 + lane * LANE_W;
+                // 레인 사이 1 픽셀은 비워 둔다
+                Arrays.fill(pixels, row + x, Math.min(row + w, row + x + LANE_W - 1), rgb);
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package ai28;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// --- 여러 칸 선택 (사각형 / 시간 구간) ---
+// 칸 하나 = (행 번호 slot = tick / ticksPerRow, 레인) 을 비트 하나 (slot * 8 + lane) 로 들고 있다.
+// slot 은 tick 0 부터 세므로 행 수가 바뀌어도 그대로이고, 8 레인 전체 구간은 BitSet.set 한 번이다.
+// 선택된 노트 = 칸 비트가 켜진 노트. 아래 편집 메서드는 모두 기본형 배열만 훑어 ChartEdit 하나를 만든다
+// (적용 / 실행 취소 / 저널 기록 / 화면 갱신이 각각 한 번).
+class ChartSelection {
+    static final int ALL_LANES = (1 << NoteChart.COLUMN_COUNT) - 1;
+    private static final int LANES = NoteChart.COLUMN_COUNT;
+
+    // 복사한 노트: 첫 선택 행의 시작 tick 을 0 으로 한 상대 tick
+    static final class Clip {
+        final long[] ticks;
+        final byte[] lanes;
+        final int[] cells;
+        final int size;
+        Clip(long[] ticks, byte[] lanes, int[] cells, int size) {
+            this.ticks = ticks;
+            this.lanes = lanes;
+            this.cells = cells;
+            this.size = size;
+        }
+    }
+
+    private final int ticksPerRow;
+    private final BitSet cells = new BitSet();
+
+    ChartSelection(int ticksPerRow) { this.ticksPerRow = ticksPerRow; }
+
+    boolean isEmpty() { return cells.isEmpty(); }
+    void clear() { cells.clear(); }
+
+    // 칸의 비트 번호 (BitSet 범위 밖이면 -1)
+    private int bit(long tick, int lane) {
+        long slot = tick / ticksPerRow;
+        return tick < 0 || slot >= Integer.MAX_VALUE / LANES ? -1 : (int) slot * LANES + lane;
+    }
+
+    boolean contains(long tick, int lane) {
+        int b = bit(tick, lane);
+        return b >= 0 && cells.get(b);
+    }
+
+    // 선택 구간의 첫 tick / 끝 tick (끝은 포함하지 않음). 비어 있으면 0, 0
+    long minTick() { return isEmpty() ? 0 : (long) (cells.nextSetBit(0) / LANES) * ticksPerRow; }
+    long maxTick() { return isEmpty() ? 0 : (long) ((cells.length() - 1) / LANES + 1) * ticksPerRow; }
+
+    // [fromTick, toTick) 를 덮는 행 x laneMask 레인으로 바꾼다
+    void setRect(long fromTick, long toTick, int laneMask) {
+        cells.clear();
+        addRect(fromTick, toTick, laneMask);
+    }
+
+    void addRect(long fromTick, long toTick, int laneMask) {
+        laneMask &= ALL_LANES;
+        long from = Math.max(0, fromTick) / ticksPerRow;
+        long to = Math.max(0, toTick + ticksPerRow - 1) / ticksPerRow;
+        if (from >= to || laneMask == 0) return;
+        if ((to + 1) * LANES > Integer.MAX_VALUE) throw new IllegalArgumentException("선택 범위 초과: " + toTick);
+        if (laneMask == ALL_LANES) { cells.set((int) from * LANES, (int) to * LANES); return; }
+        // 연속된 레인 구간마다 한 번씩 (테이블의 사각형 선택이면 행마다 한 번)
+        for (long slot = from; slot < to; slot++) {
+            int base = (int) slot * LANES;
+            for (int bits = laneMask; bits != 0; ) {
+                int lo = Integer.numberOfTrailingZeros(bits);
+                int run = Integer.numberOfTrailingZeros(~(bits >>> lo));
+                cells.set(base + lo, base + lo + run);
+                bits &= ~(((1 << run) - 1) << lo);
+            }
+        }
+    }
+
+    void addNote(long tick, int lane) {
+        int b = bit(tick, lane);
+        if (b >= 0) cells.set(b);
+    }
+
+    // 편집 뒤 선택: 새로 놓인 노트들
+    void selectPlaced(ChartEdit edit) {
+        cells.clear();
+        for (int i = 0; i < edit.count(); i++) {
+            if (edit.afterAt(i) == NoteChart.EMPTY) continue;
+            long k = edit.keyAt(i);
+            addNote(NoteChart.tickOf(k), NoteChart.laneOf(k));
+        }
+    }
+
+    // 화면에 보이는 [fromTick, toTick) 안의 선택 구간을 돌며 (시작 비트, 끝 비트) 를 넘긴다
+    interface RunVisitor { void run(int fromBit, int toBit); }
+
+    void forEachRun(long fromTick, long toTick, RunVisitor visitor) {
+        int end = (int) Math.min(Integer.MAX_VALUE, Math.max(0, toTick + ticksPerRow - 1) / ticksPerRow * LANES);
+        for (int a = cells.nextSetBit((int) (Math.max(0, fromTick) / ticksPerRow * LANES)); a >= 0 && a < end; ) {
+            int b = cells.nextClearBit(a);
+            visitor.run(a, Math.min(b, end));
+            a = b >= end ? -1 : cells.nextSetBit(b);
+        }
+    }
+
+    int getTicksPerRow() { return ticksPerRow; }
+
+    // 선택된 노트의 차트 인덱스 (오름차순 = 키 순)
+    int[] selectedIndices(NoteChart chart) {
+        if (isEmpty()) return new int[0];
+        int lo = chart.ceilIndex(minTick()), hi = chart.ceilIndex(maxTick());
+        int[] out = new int[Math.max(0, hi - lo)];
+        int n = 0;
+        for (int i = lo; i < hi; i++) {
+            if (contains(chart.tickAt(i), chart.laneAt(i))) out[n++] = i;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    // --- 편집 ---
+
+    Clip copy(NoteChart chart) {
+        int[] idx = selectedIndices(chart);
+        long base = minTick();
+        long[] ticks = new long[idx.length];
+        byte[] lanes = new byte[idx.length];
+        int[] values = new int[idx.length];
+        for (int k = 0; k < idx.length; k++) {
+            ticks[k] = chart.tickAt(idx[k]) - base;
+            lanes[k] = (byte) chart.laneAt(idx[k]);
+            values[k] = chart.cellAt(idx[k]);
+        }
+        return new Clip(ticks, lanes, values, idx.length);
+    }
+
+    ChartEdit delete(NoteChart chart) {
+        ChartEdit edit = new ChartEdit("선택 삭제");
+        for (int i : selectedIndices(chart)) edit.record(chart.tickAt(i), chart.laneAt(i), chart.cellAt(i), NoteChart.EMPTY);
+        return edit;
+    }
+
+    // atTick 을 클립의 0 으로 두고 붙여 넣는다. 자리에 있던 노트는 덮어쓴다
+    static ChartEdit paste(NoteChart chart, Clip clip, long atTick) {
+        ChartEdit edit = new ChartEdit("붙여넣기");
+        for (int k = 0; k < clip.size; k++) {
+            long tick = atTick + clip.ticks[k];
+            if (tick < 0 || tick > NoteChart.MAX_TICK) continue;
+            edit.set(chart, tick, clip.lanes[k], clip.cells[k]);
+        }
+        return edit;
+    }
+
+    // 시간 이동. tick 0 아래로는 밀지 않는다
+    ChartEdit shift(NoteChart chart, long deltaTicks) {
+        int[] idx = selectedIndices(chart);
+        if (idx.length == 0) return new ChartEdit("시간 이동");
+        long delta = Math.max(deltaTicks, -chart.tickAt(idx[0]));
+        delta = Math.min(delta, NoteChart.MAX_TICK - chart.tickAt(idx[idx.length - 1]));
+        long[] newKeys = new long[idx.length];
+        for (int k = 0; k < idx.length; k++) newKeys[k] = NoteChart.key(chart.tickAt(idx[k]) + delta, chart.laneAt(idx[k]));
+        return relocate("시간 이동", chart, idx, newKeys);
+    }
+
+    // 레인 좌우 반전 (SCR <-> L, S <-> K ...)
+    ChartEdit mirror(NoteChart chart) {
+        int[] idx = selectedIndices(chart);
+        long[] newKeys = new long[idx.length];
+        for (int k = 0; k < idx.length; k++) newKeys[k] = NoteChart.key(chart.tickAt(idx[k]), LANES - 1 - chart.laneAt(idx[k]));
+        return relocate("레인 반전", chart, idx, newKeys);
+    }
+
+    // 음 높이 이동 (0 ~ 127 에서 멈춘다). 키는 그대로
+    ChartEdit transpose(NoteChart chart, int semitones) {
+        ChartEdit edit = new ChartEdit("음 높이 이동");
+        for (int i : selectedIndices(chart)) {
+            int pitch = Math.max(0, Math.min(127, chart.pitchAt(i) + semitones));
+            edit.record(chart.tickAt(i), chart.laneAt(i), chart.cellAt(i), NoteChart.cell(pitch, chart.velocityAt(i), chart.durationAt(i)));
+        }
+        return edit;
+    }
+
+    // [추가] 롱노트 길이 조절 (0 이면 치는 노트, MAX_DURATION 에서 멈춘다). 키는 그대로
+    ChartEdit resize(NoteChart chart, long deltaTicks) {
+        ChartEdit edit = new ChartEdit("롱노트 길이");
+        for (int i : selectedIndices(chart)) {
+            int cell = chart.cellAt(i);
+            edit.record(chart.tickAt(i), chart.laneAt(i), cell, NoteChart.withDuration(cell, chart.durationAt(i) + deltaTicks));
+        }
+        return edit;
+    }
+
+    // [추가] [fromTick, toTick) 에서 두 레인의 노트를 통째로 맞바꾼다 (테이블 칸 끌어 옮기기). 각자 원래 tick 유지
+    static ChartEdit swapLanes(NoteChart chart, long fromTick, long toTick, int laneA, int laneB) {
+        int lo = chart.ceilIndex(Math.max(0, fromTick)), hi = chart.ceilIndex(toTick);
+        int[] idx = new int[hi - lo];
+        long[] newKeys = new long[hi - lo];
+        int n = 0;
+        for (int i = lo; i < hi; i++) {
+            int lane = chart.laneAt(i);
+            if (lane != laneA && lane != laneB) continue;
+            idx[n] = i;
+            newKeys[n++] = NoteChart.key(chart.tickAt(i), lane == laneA ? laneB : laneA);
+        }
+        return relocate("이동", chart, Arrays.copyOf(idx, n), Arrays.copyOf(newKeys, n));
+    }
+
+    // 노트 idx[k] 를 newKeys[k] 로 옮긴다 (newKeys 는 서로 다르다). 먼저 전부 지우고 새 자리에 넣으므로
+    // 옮겨지는 노트끼리 자리가 겹쳐도 되고, 선택 밖의 노트가 있던 자리는 덮어쓴다 (취소하면 살아난다)
+    private static ChartEdit relocate(String label, NoteChart chart, int[] idx, long[] newKeys) {
+        ChartEdit edit = new ChartEdit(label);
+        int n = idx.length;
+        long[] oldKeys = new long[n];
+        for (int k = 0; k < n; k++) {
+            oldKeys[k] = chart.keyAt(idx[k]);
+            edit.record(chart.tickAt(idx[k]), chart.laneAt(idx[k]), chart.cellAt(idx[k]), NoteChart.EMPTY);
+        }
+        for (int k = 0; k < n; k++) {
+            long key = newKeys[k];
+            long tick = NoteChart.tickOf(key);
+            int lane = NoteChart.laneOf(key);
+            int before = Arrays.binarySearch(oldKeys, key) >= 0 ? NoteChart.EMPTY : chart.getCell(tick, lane);
+            edit.record(tick, lane, before, chart.cellAt(idx[k]));
+        }
+        return edit;
+    }
+}
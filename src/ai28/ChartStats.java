@@ -0,0 +1,174 @@
+package ai28;
+
+// --- 차트 통계: 레인별 노트 수 / 초당 노트 수(NPS) ---
+// 시간을 BUCKET_MICROS 칸으로 나누고 레인마다 Fenwick(binary indexed) 트리로 칸별 노트 수를 든다.
+// 편집 하나는 ChartEdit 의 (이전, 새) 셀만 보고 칸 하나씩 +-1 하므로 O(k log B), 아무 시간 구간의 노트 수는
+// 접두합 두 번으로 O(log B) 다 (B = 칸 수, 10분 곡이면 6000). 구간 경계는 칸 단위로 맞춰진다.
+// 최고 밀도는 편집이 있을 때만 칸 배열을 한 번 훑어 다시 구한다.
+// 만들기(of)는 백그라운드에서 해도 되지만 이후 갱신/조회는 EDT 에서만 한다.
+final class ChartStats {
+    static final long BUCKET_MICROS = 100_000;
+    // NPS 를 셀 때의 창 (1초)
+    static final int WINDOW_BUCKETS = (int) (1_000_000 / BUCKET_MICROS);
+    private static final int LANES = NoteChart.COLUMN_COUNT;
+
+    private final TempoMap tempo;
+    // [레인] 1 부터 세는 Fenwick 트리, 마지막 줄([LANES]) 은 전체
+    private final int[][] trees = new int[LANES + 1][];
+    // 칸별 전체 노트 수 (최고 밀도 계산용)
+    private int[] counts;
+    private final int[] laneTotals = new int[LANES];
+    private int total;
+    private int version;
+
+    private int peakVersion = -1, peakCount, peakBucket;
+
+    private ChartStats(TempoMap tempo, int buckets) {
+        this.tempo = tempo;
+        allocate(buckets);
+    }
+
+    static ChartStats empty(TempoMap tempo) { return new ChartStats(tempo, 64); }
+
+    // 차트 전체를 한 번 훑어 만든다: 칸별 개수를 센 뒤 O(B) 로 Fenwick 트리를 채운다
+    static ChartStats of(NoteChart chart, TempoMap tempo) {
+        int n = chart.size();
+        ChartStats stats = new ChartStats(tempo, n == 0 ? 64 : bucketFor(tempo, chart.lastTick()) + 1);
+        int buckets = stats.counts.length;
+        int[][] raw = new int[LANES + 1][buckets + 1];
+        for (int i = 0; i < n; i++) {
+            int b = bucketFor(tempo, chart.tickAt(i)) + 1;
+            raw[chart.laneAt(i)][b]++;
+            raw[LANES][b]++;
+            stats.laneTotals[chart.laneAt(i)]++;
+        }
+        stats.total = n;
+        for (int b = 0; b < buckets; b++) stats.counts[b] = raw[LANES][b + 1];
+        for (int l = 0; l <= LANES; l++) {
+            int[] t = raw[l];
+            for (int i = 1; i <= buckets; i++) {
+                int parent = i + (i & -i);
+                if (parent <= buckets) t[parent] += t[i];
+            }
+            stats.trees[l] = t;
+        }
+        return stats;
+    }
+
+    private static int bucketFor(TempoMap tempo, long tick) {
+        return (int) Math.min(Integer.MAX_VALUE - 1, tempo.tickToMicros(tick) / BUCKET_MICROS);
+    }
+
+    private void allocate(int buckets) {
+        for (int l = 0; l <= LANES; l++) trees[l] = new int[buckets + 1];
+        counts = new int[buckets];
+    }
+
+    // 칸이 모자라면 두 배로 늘리고 칸별 개수에서 다시 만든다 (드물게, O(B))
+    private void ensureBucket(int bucket) {
+        if (bucket < counts.length) return;
+        int buckets = Math.max(bucket + 1, counts.length * 2);
+        int[][] laneCounts = new int[LANES][];
+        for (int l = 0; l < LANES; l++) laneCounts[l] = pointValues(trees[l], counts.length);
+        int[] old = counts;
+        allocate(buckets);
+        System.arraycopy(old, 0, counts, 0, old.length);
+        for (int l = 0; l < LANES; l++) {
+            for (int b = 0; b < old.length; b++) if (laneCounts[l][b] != 0) add(trees[l], b, laneCounts[l][b]);
+        }
+        for (int b = 0; b < old.length; b++) if (old[b] != 0) add(trees[LANES], b, old[b]);
+    }
+
+    private static int[] pointValues(int[] tree, int buckets) {
+        int[] values = new int[buckets];
+        for (int b = 0; b < buckets; b++) values[b] = prefix(tree, b + 1) - prefix(tree, b);
+        return values;
+    }
+
+    private static void add(int[] tree, int bucket, int delta) {
+        for (int i = bucket + 1; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    // 칸 [0, buckets) 의 합
+    private static int prefix(int[] tree, int buckets) {
+        int sum = 0;
+        for (int i = Math.min(buckets, tree.length - 1); i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+
+    // --- 갱신 ---
+    void add(long tick, int lane, int delta) {
+        int b = bucketFor(tempo, tick);
+        ensureBucket(b);
+        add(trees[lane], b, delta);
+        add(trees[LANES], b, delta);
+        counts[b] += delta;
+        laneTotals[lane] += delta;
+        total += delta;
+        version++;
+    }
+
+    // 적용(revert = false) / 취소(true) 된 편집만큼. 같은 키의 기록이 여럿이어도 칸마다 차이를 더하므로 순서와 무관하다
+    void apply(ChartEdit edit, boolean revert) {
+        for (int i = 0; i < edit.count(); i++) {
+            int delta = (edit.afterAt(i) != NoteChart.EMPTY ? 1 : 0) - (edit.beforeAt(i) != NoteChart.EMPTY ? 1 : 0);
+            if (delta == 0) continue;
+            long key = edit.keyAt(i);
+            add(NoteChart.tickOf(key), NoteChart.laneOf(key), revert ? -delta : delta);
+        }
+    }
+
+    // --- 조회 ---
+    int total() { return total; }
+    int laneTotal(int lane) { return laneTotals[lane]; }
+    int getVersion() { return version; }
+    TempoMap getTempoMap() { return tempo; }
+
+    // 마지막 노트가 있는 칸의 끝 (없으면 0)
+    long lengthMicros() {
+        for (int b = counts.length - 1; b >= 0; b--) if (counts[b] != 0) return (b + 1) * BUCKET_MICROS;
+        return 0;
+    }
+
+    // [fromMicros, toMicros) 를 덮는 칸들의 노트 수. lane 이 -1 이면 전체
+    int count(int lane, long fromMicros, long toMicros) {
+        return countBuckets(lane, Math.floorDiv(fromMicros, BUCKET_MICROS), Math.floorDiv(toMicros + BUCKET_MICROS - 1, BUCKET_MICROS));
+    }
+
+    // micros 의 칸을 가운데에 둔 WINDOW_BUCKETS 칸(1초) 의 노트 수 = NPS
+    int nps(int lane, long micros) {
+        long from = Math.floorDiv(micros, BUCKET_MICROS) - WINDOW_BUCKETS / 2;
+        return countBuckets(lane, from, from + WINDOW_BUCKETS);
+    }
+
+    private int countBuckets(int lane, long fromBucket, long toBucket) {
+        int from = (int) Math.max(0, Math.min(counts.length, fromBucket));
+        int to = (int) Math.max(0, Math.min(counts.length, toBucket));
+        int[] tree = trees[lane < 0 ? LANES : lane];
+        return to <= from ? 0 : prefix(tree, to) - prefix(tree, from);
+    }
+
+    // 가장 빽빽한 1초 창의 노트 수 / 시작 시각 (편집이 있을 때만 다시 구한다)
+    int peakNps() {
+        updatePeak();
+        return peakCount;
+    }
+
+    long peakMicros() {
+        updatePeak();
+        return peakBucket * BUCKET_MICROS;
+    }
+
+    private void updatePeak() {
+        if (peakVersion == version) return;
+        int sum = 0, best = 0, bestAt = 0;
+        for (int b = 0; b < counts.length; b++) {
+            sum += counts[b];
+            if (b >= WINDOW_BUCKETS) sum -= counts[b - WINDOW_BUCKETS];
+            if (sum > best) { best = sum; bestAt = Math.max(0, b - WINDOW_BUCKETS + 1); }
+        }
+        peakCount = best;
+        peakBucket = bestAt;
+        peakVersion = version;
+    }
+}
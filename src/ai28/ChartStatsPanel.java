@@ -0,0 +1,87 @@
+package ai28;
+
+import java.awt.*;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.swing.JComponent;
+
+// --- 통계 패널: 노트 수 / 레인별 수 / 지금(판정선) NPS / 최고 NPS 와 곡 전체 NPS 그래프 ---
+// 그래프는 가로 픽셀 하나마다 ChartStats.nps 한 번 (Fenwick 접두합 두 번) 이라 차트 크기와 상관없이 폭에 비례한다.
+// 글자 줄은 통계 버전이나 지금 NPS 가 바뀔 때만 다시 만든다 (스크롤할 때마다 그려지므로).
+class ChartStatsPanel extends JComponent {
+    private static final Color BACKGROUND = new Color(25, 25, 25);
+    private static final Color TEXT_COLOR = new Color(170, 170, 170);
+    private static final Color GRAPH_COLOR = new Color(0, 160, 100);
+    private static final Color PEAK_COLOR = new Color(255, 120, 80);
+    private static final Color CURSOR_COLOR = new Color(255, 255, 150);
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+    private static final String[] LANE_NAMES = {"SCR", "S", "D", "F", "SP", "J", "K", "L"};
+    private static final int GRAPH_HEIGHT = 40, PAD = 4;
+
+    private final Supplier<ChartStats> stats;
+    private final LongSupplier currentMicros;
+    private final Rectangle clip = new Rectangle();
+    private String summary = "";
+    private ChartStats summaryStats;
+    private int summaryVersion = -1, summaryNps = -1;
+
+    ChartStatsPanel(Supplier<ChartStats> stats, LongSupplier currentMicros) {
+        this.stats = stats;
+        this.currentMicros = currentMicros;
+        setOpaque(true);
+        setBackground(BACKGROUND);
+        setFont(FONT);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(100, GRAPH_HEIGHT + getFontMetrics(FONT).getHeight() + PAD * 3);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.getClipBounds(clip);
+        if (clip.isEmpty()) clip.setBounds(0, 0, getWidth(), getHeight());
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        ChartStats s = stats.get();
+        long now = currentMicros.getAsLong();
+        int nowNps = s.nps(-1, now);
+        FontMetrics fm = g.getFontMetrics();
+        g.setColor(TEXT_COLOR);
+        g.drawString(summary(s, nowNps), PAD, PAD + fm.getAscent());
+
+        // 그래프: x = 곡 시간, 높이 = 그 시각의 1초 창 노트 수 (최고 NPS 가 꽉 찬 높이)
+        int top = PAD * 2 + fm.getHeight(), width = getWidth() - PAD * 2;
+        long length = s.lengthMicros();
+        int peak = s.peakNps();
+        if (length <= 0 || peak == 0 || width <= 0) return;
+        g.setColor(GRAPH_COLOR);
+        int from = Math.max(0, clip.x - PAD), to = Math.min(width, clip.x + clip.width - PAD);
+        for (int x = from; x < to; x++) {
+            int h = (int) ((long) s.nps(-1, length * x / width) * GRAPH_HEIGHT / peak);
+            if (h > 0) g.fillRect(PAD + x, top + GRAPH_HEIGHT - h, 1, h);
+        }
+        g.setColor(PEAK_COLOR);
+        int peakX = PAD + (int) (s.peakMicros() * width / length);
+        g.drawLine(peakX, top, peakX, top + GRAPH_HEIGHT);
+        g.setColor(CURSOR_COLOR);
+        int nowX = PAD + (int) (Math.min(now, length) * width / length);
+        g.drawLine(nowX, top, nowX, top + GRAPH_HEIGHT);
+    }
+
+    private String summary(ChartStats s, int nowNps) {
+        if (s == summaryStats && s.getVersion() == summaryVersion && nowNps == summaryNps) return summary;
+        StringBuilder sb = new StringBuilder("노트 ").append(s.total()).append(" |");
+        for (int lane = 0; lane < LANE_NAMES.length; lane++) sb.append(' ').append(LANE_NAMES[lane]).append(' ').append(s.laneTotal(lane));
+        long peakMillis = s.peakMicros() / 1000;
+        sb.append(" | NPS ").append(nowNps).append(" (최고 ").append(s.peakNps())
+          .append(String.format(" @ %02d:%02d.%d)", peakMillis / 60_000, peakMillis / 1000 % 60, peakMillis / 100 % 10));
+        summaryStats = s;
+        summaryVersion = s.getVersion();
+        summaryNps = nowNps;
+        return summary = sb.toString();
+    }
+}
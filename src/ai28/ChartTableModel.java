@@ -0,0 +1,111 @@
+package ai28;
+
+import javax.swing.table.AbstractTableModel;
+
+// --- JTable 용 모델: 셀을 따로 저장하지 않고 NoteChart 를 그대로 보여준다 ---
+// DefaultTableModel 처럼 행 x 레인 Vector 를 만들지 않으므로 행 수가 늘어도 메모리가 그대로다.
+// 노트는 정확한 tick 으로 저장되고, 행 하나는 [rowToTick(row), + ticksPerRow) 구간의 첫 노트를 보여준다.
+// [수정] 한 칸에 노트가 여럿이면 렌더러가 noteCount 로 나머지 개수를 붙여 보여 주고, 지우기 / 옮기기는 칸의 노트 전부에 한다.
+// [추가] 롱노트의 몸통 칸도 저장하지 않는다: 렌더러가 holdIndex 로 "이 행 시작 tick 을 지나가는 롱노트" 를 그때그때 찾는다.
+class ChartTableModel extends AbstractTableModel {
+    private final int ticksPerRow;
+    private final int judgmentOffset;
+
+    private NoteChart chart = new NoteChart();
+    private int rowCount;
+
+    ChartTableModel(int ticksPerRow, int judgmentOffset) {
+        this.ticksPerRow = ticksPerRow;
+        this.judgmentOffset = judgmentOffset;
+    }
+
+    NoteChart getChart() { return chart; }
+    int getTicksPerRow() { return ticksPerRow; }
+    int getJudgmentOffset() { return judgmentOffset; }
+
+    // 차트 교체는 이벤트 한 번으로 끝낸다
+    void setChart(NoteChart chart, int rowCount) {
+        this.chart = chart;
+        this.rowCount = rowCount;
+        fireTableDataChanged();
+    }
+
+    void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+        fireTableDataChanged();
+    }
+
+    // 행 번호 <-> tick (위쪽 행일수록 뒤의 시간)
+    long rowToTick(int row) { return (long) (rowCount - 1 - judgmentOffset - row) * ticksPerRow; }
+    int tickToRow(long tick) { return rowCount - 1 - judgmentOffset - (int) (tick / ticksPerRow); }
+
+    // tick 범위가 바뀌었을 때 해당 행들만 이벤트 한 번으로 알린다
+    void fireTicksUpdated(long fromTick, long toTick) {
+        if (rowCount == 0 || toTick < fromTick) return;
+        int first = Math.max(0, tickToRow(toTick));
+        int last = Math.min(rowCount - 1, tickToRow(fromTick));
+        if (first <= last) fireTableRowsUpdated(first, last);
+    }
+
+    // [추가] 편집 하나가 닿는 행: 편집한 칸부터, 롱노트가 있으면 그 몸통이 닿을 수 있는 만큼 더
+    // (새 노트가 앞의 롱노트를 끊거나, 지운 노트 덕에 다시 이어지는 경우 포함). 보이지 않는 행은 다시 그리지 않으므로 넉넉해도 된다
+    void fireEditUpdated(ChartEdit edit) {
+        long reach = chart.index().holdCount() > 0 ? NoteChart.MAX_DURATION : 0;
+        fireTicksUpdated(edit.minTick(), edit.maxTick() + reach);
+    }
+
+    @Override public int getRowCount() { return rowCount; }
+    @Override public int getColumnCount() { return NoteChart.COLUMN_COUNT; }
+    @Override public boolean isCellEditable(int row, int column) { return false; }
+
+    // 행/레인 칸에 보이는 노트의 차트 인덱스 (없으면 -1)
+    int noteIndex(int row, int column) {
+        long tick = rowToTick(row);
+        return tick < 0 ? -1 : chart.indexInRange(tick, tick + ticksPerRow, column);
+    }
+
+    // 칸 (행 구간 x 레인) 에 든 노트 수. 행 구간의 노트만 훑으므로 많아야 ticksPerRow x 레인 수
+    int noteCount(int row, int column) {
+        int i = noteIndex(row, column);
+        if (i < 0) return 0;
+        long end = rowToTick(row) + ticksPerRow;
+        int count = 0;
+        for (int n = chart.size(); i < n && chart.tickAt(i) < end; i++) if (chart.laneAt(i) == column) count++;
+        return count;
+    }
+
+    // 칸에 노트가 있으면 그 노트의 tick, 없으면 행의 시작 tick
+    long noteTick(int row, int column) {
+        int i = noteIndex(row, column);
+        return i >= 0 ? chart.tickAt(i) : rowToTick(row);
+    }
+
+    // 칸이 롱노트 몸통이면 (앞 행에서 시작한 롱노트가 이 행의 시작 tick 을 지나가면) 그 노트의 차트 인덱스, 아니면 -1
+    int holdIndex(int row, int column) {
+        long tick = rowToTick(row);
+        return tick < 0 ? -1 : chart.index().holdCovering(column, tick);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int i = noteIndex(row, column);
+        return i < 0 ? null : NoteData.of(chart.pitchAt(i));
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        // 지우기는 칸의 노트 전부
+        if (!(value instanceof NoteData nd)) {
+            for (int i; (i = noteIndex(row, column)) >= 0; ) chart.remove(chart.tickAt(i), column);
+            fireTableCellUpdated(row, column);
+            return;
+        }
+        long tick = noteTick(row, column);
+        if (tick < 0) return;
+        // 이미 있던 노트의 음만 바꾸면 길이(롱노트) 는 그대로
+        int old = chart.getCell(tick, column);
+        int duration = old == NoteChart.EMPTY ? 0 : NoteChart.cellDuration(old);
+        chart.put(tick, column, NoteChart.cell(nd.pitch, NoteChart.DEFAULT_VELOCITY, duration));
+        fireTableCellUpdated(row, column);
+    }
+}
@@ -0,0 +1,78 @@
+package ai28;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// --- 실행 취소 / 다시 실행 기록 ---
+// ChartEdit 만 쌓으므로 한 단계의 크기는 바뀐 노트 수에 비례한다.
+// 전체 메모리 상한을 넘으면 가장 오래된 기록부터 버린다.
+class EditHistory {
+    static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+    static final int DEFAULT_MAX_DEPTH = 1000;
+    // 같은 종류의 편집이 이 시간 안에 이어지면 한 단계로 합친다
+    static final long COALESCE_MS = 400;
+
+    private final Deque<ChartEdit> undoStack = new ArrayDeque<>();
+    private final Deque<ChartEdit> redoStack = new ArrayDeque<>();
+    private final long maxBytes;
+    private final int maxDepth;
+    private long undoBytes;
+
+    EditHistory() { this(DEFAULT_MAX_BYTES, DEFAULT_MAX_DEPTH); }
+
+    EditHistory(long maxBytes, int maxDepth) {
+        this.maxBytes = maxBytes;
+        this.maxDepth = maxDepth;
+    }
+
+    // 이미 차트에 반영된 편집을 기록한다
+    void push(ChartEdit edit) {
+        if (edit.count() == 0) return;
+        redoStack.clear();
+        ChartEdit top = undoStack.peek();
+        if (top != null && top.label.equals(edit.label) && edit.createdAt - top.createdAt < COALESCE_MS) {
+            undoBytes -= top.sizeInBytes();
+            top.append(edit);
+            undoBytes += top.sizeInBytes();
+        } else {
+            undoStack.push(edit);
+            undoBytes += edit.sizeInBytes();
+        }
+        trim();
+    }
+
+    boolean canUndo() { return !undoStack.isEmpty(); }
+    boolean canRedo() { return !redoStack.isEmpty(); }
+
+    // 되돌린 편집을 돌려준다 (없으면 null). 호출 측이 화면 갱신 범위를 정한다
+    ChartEdit undo(NoteChart chart) {
+        ChartEdit edit = undoStack.poll();
+        if (edit == null) return null;
+        undoBytes -= edit.sizeInBytes();
+        edit.revert(chart);
+        redoStack.push(edit);
+        return edit;
+    }
+
+    ChartEdit redo(NoteChart chart) {
+        ChartEdit edit = redoStack.poll();
+        if (edit == null) return null;
+        edit.apply(chart);
+        undoStack.push(edit);
+        undoBytes += edit.sizeInBytes();
+        trim();
+        return edit;
+    }
+
+    void clear() {
+        undoStack.clear();
+        redoStack.clear();
+        undoBytes = 0;
+    }
+
+    private void trim() {
+        while (undoStack.size() > 1 && (undoBytes > maxBytes || undoStack.size() > maxDepth)) {
+            undoBytes -= undoStack.removeLast().sizeInBytes();
+        }
+    }
+}
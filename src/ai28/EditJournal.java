@@ -0,0 +1,278 @@
+package ai28;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+// --- 편집 저널: 모든 차트 변경을 추가 전용 바이너리 로그로 남긴다 ---
+// 세션 = 기준 스냅샷(session.rchart) + 그 뒤의 변경 기록(session.journal).
+// 기록은 "이 key 의 셀을 이 값으로" 라는 절대값이라, 순서대로 다시 적용하면 항상 같은 결과가 된다.
+//
+// 저널 파일: [magic, version, generation(long)] 다음에 레코드가 이어진다.
+// 레코드:   int count, count x (long key, int cell), int crc32  (crc 가 안 맞는 꼬리는 버린다)
+//           셀에는 롱노트 길이도 들어 있다 (NoteChart.cell). 길이 칸이 생기기 전의 저널은 모두 치는 노트로 읽힌다
+//
+// EDT 는 메모리 버퍼에 쌓기만 하고, 전용 스레드가 GROUP_COMMIT_NANOS 마다 모아서 쓰고 한 번 fsync 한다.
+// 저널이 COMPACT_BYTES 를 넘으면 스냅샷을 새로 쓰고 저널을 비운다(세대 번호 +1).
+// 스냅샷의 tag 와 저널의 세대가 다르면 저널은 다른 차트의 것이므로 무시한다.
+class EditJournal {
+    static final String BASE_FILE = "session" + ChartFile.EXTENSION;
+    static final String JOURNAL_FILE = "session.journal";
+    static final long GROUP_COMMIT_NANOS = 200_000_000;
+    static final long COMPACT_BYTES = 8L * 1024 * 1024;
+
+    private static final int MAGIC = 0x4C4E524A; // "JRNL" (little endian)
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 12;
+
+    private final Path basePath, journalPath;
+    private final int ticksPerRow;
+    private final Object lock = new Object();
+    private final CRC32 crc = new CRC32();
+
+    // lock 으로 보호: EDT 가 쌓는 버퍼와 압축 요청
+    private ByteBuffer pending = newBuffer(64 * 1024);
+    private NoteChart compactChart;
+    private TempoMap compactTempo;
+    private int compactMark;
+    private boolean discardBeforeMark;
+    private volatile long journalBytes;
+
+    // 쓰기 스레드 전용
+    private FileChannel channel;
+    private ByteBuffer writing = newBuffer(64 * 1024);
+    private long generation = System.currentTimeMillis() << 20; // 복원하면 스냅샷의 tag 로 바뀐다
+    private long resumeLength = -1;
+
+    private volatile Thread thread;
+    private volatile boolean closed;
+
+    EditJournal(Path dir, int ticksPerRow) {
+        this.basePath = dir.resolve(BASE_FILE);
+        this.journalPath = dir.resolve(JOURNAL_FILE);
+        this.ticksPerRow = ticksPerRow;
+    }
+
+    private static ByteBuffer newBuffer(int capacity) { return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN); }
+
+    boolean hasSession() { return Files.isRegularFile(basePath); }
+
+    // --- 복원: 기준 스냅샷을 읽고 저널을 다시 적용한다 (백그라운드 스레드에서 호출) ---
+    // 이어서 쓸 위치를 기억해 두므로 복원 뒤에는 open() 으로 기록을 재개한다
+    MidiChartReader.Result restore() throws IOException {
+        MidiChartReader.Result base = ChartFile.load(basePath);
+        generation = ChartFile.readTag(basePath);
+        resumeLength = -1;
+        if (!Files.isRegularFile(journalPath)) return base;
+
+        ByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC || buf.getInt() != VERSION
+                || buf.getLong() != generation) {
+            return base; // 다른 세대의 저널: 스냅샷만 쓴다 (open 때 새로 만든다)
+        }
+        long[] keys = new long[1024];
+        int[] cells = new int[1024];
+        int total = 0, valid = HEADER_BYTES;
+        while (buf.remaining() >= 8) {
+            int start = buf.position();
+            int count = buf.getInt();
+            if (count < 0 || buf.remaining() < (long) count * ENTRY_BYTES + 4) break;
+            crc.reset();
+            crc.update(buf.slice(start + 4, count * ENTRY_BYTES));
+            if ((int) crc.getValue() != buf.getInt(start + 4 + count * ENTRY_BYTES)) break;
+            if (total + count > keys.length) {
+                int cap = Math.max(keys.length * 2, total + count);
+                keys = Arrays.copyOf(keys, cap);
+                cells = Arrays.copyOf(cells, cap);
+            }
+            for (int i = 0; i < count; i++, total++) {
+                keys[total] = buf.getLong();
+                cells[total] = buf.getInt();
+            }
+            buf.getInt();
+            valid = buf.position();
+        }
+        resumeLength = valid;
+        journalBytes = valid;
+        // 같은 key 는 나중 값이 이기므로 전체를 한 번에 병합해도 순서대로 적용한 것과 같다
+        base.chart.setAll(keys, cells, total);
+        return new MidiChartReader.Result(ChartFile.toSequence(base.chart, base.tempoMap), base.chart, base.tempoMap);
+    }
+
+    // restore() 가 끝난 세션에 이어서 기록한다. 저널이 없거나 맞지 않으면 restore 한 차트로 새로 시작
+    void open(NoteChart restored, TempoMap tempoMap) {
+        if (resumeLength < 0) { reset(restored.snapshot(), tempoMap); return; }
+        startThread();
+    }
+
+    // 새 차트를 불러왔을 때: 이전 기록을 버리고 이 스냅샷을 새 기준으로 삼는다
+    void reset(NoteChart snapshot, TempoMap tempoMap) {
+        synchronized (lock) {
+            pending.clear();
+            compactChart = snapshot;
+            compactTempo = tempoMap;
+            compactMark = 0;
+            discardBeforeMark = true;
+        }
+        startThread();
+        LockSupport.unpark(thread);
+    }
+
+    // --- 기록 (EDT) ---
+    void record(ChartEdit edit, boolean undo) {
+        int n = edit.count();
+        if (n == 0 || thread == null) return;
+        synchronized (lock) {
+            ensure(8 + n * ENTRY_BYTES);
+            int start = pending.position();
+            pending.putInt(n);
+            // 실행 취소는 역순으로 이전 값을 적용하는 것과 같다 (ChartEdit.revert 와 동일)
+            for (int i = 0; i < n; i++) {
+                int j = undo ? n - 1 - i : i;
+                pending.putLong(edit.keyAt(j)).putInt(undo ? edit.beforeAt(j) : edit.afterAt(j));
+            }
+            crc.reset();
+            crc.update(pending.array(), start + 4, n * ENTRY_BYTES);
+            pending.putInt((int) crc.getValue());
+        }
+    }
+
+    boolean needsCompaction() {
+        synchronized (lock) { return compactChart == null && journalBytes + pending.position() > COMPACT_BYTES; }
+    }
+
+    // 지금까지의 기록이 모두 반영된 스냅샷을 넘기면 쓰기 스레드가 새 기준으로 교체한다
+    void compact(NoteChart snapshot, TempoMap tempoMap) {
+        synchronized (lock) {
+            // 아직 처리되지 않은 reset 이 있으면 옛 저널에 쓰지 않는다는 표시를 유지
+            if (compactChart == null) discardBeforeMark = false;
+            compactChart = snapshot;
+            compactTempo = tempoMap;
+            compactMark = pending.position();
+        }
+        LockSupport.unpark(thread);
+    }
+
+    // 남은 기록을 쓰고 fsync 한 뒤 스레드를 멈춘다
+    void close() {
+        Thread t = thread;
+        if (t == null) return;
+        closed = true;
+        LockSupport.unpark(t);
+        try { t.join(2000); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    private void ensure(int bytes) {
+        if (pending.remaining() >= bytes) return;
+        ByteBuffer grown = newBuffer(Math.max(pending.capacity() * 2, pending.position() + bytes));
+        pending.flip();
+        grown.put(pending);
+        pending = grown;
+    }
+
+    private synchronized void startThread() {
+        if (thread != null) return;
+        Thread t = new Thread(this::loop, "edit-journal");
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+
+    // --- 쓰기 스레드 ---
+    private void loop() {
+        try {
+            if (resumeLength >= 0) {
+                channel = FileChannel.open(journalPath, StandardOpenOption.WRITE);
+                channel.truncate(resumeLength);
+                channel.position(resumeLength);
+            }
+            while (true) {
+                boolean last = closed;
+                commit();
+                if (last) break;
+                LockSupport.parkNanos(GROUP_COMMIT_NANOS);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            try { if (channel != null) channel.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    // 스냅샷을 새로 썼으면 표시 뒤의 기록을 곧바로 새 저널에 이어 쓴다 (닫기 직전의 마지막 commit 에서도 남지 않도록)
+    private void commit() throws IOException {
+        while (commitBatch()) {}
+    }
+
+    // 쌓인 기록을 쓰고, 압축 / reset 스냅샷이 있었으면 저널을 교체한 뒤 true
+    private boolean commitBatch() throws IOException {
+        NoteChart chart;
+        TempoMap tempo;
+        boolean discard;
+        synchronized (lock) {
+            chart = compactChart;
+            tempo = compactTempo;
+            discard = discardBeforeMark;
+            compactChart = null;
+            compactTempo = null;
+            // reset 의 스냅샷을 이번에 쓰므로, 그 뒤에 쌓인 기록은 새 저널에 남긴다
+            if (chart != null) discardBeforeMark = false;
+            // 압축 요청이 있으면 표시 위치까지만 가져오고 나머지는 새 저널에 쓴다
+            int take = chart != null ? compactMark : pending.position();
+            if (writing.capacity() < take) writing = newBuffer(pending.capacity());
+            writing.clear();
+            writing.put(pending.array(), 0, take);
+            int rest = pending.position() - take;
+            System.arraycopy(pending.array(), take, pending.array(), 0, rest);
+            pending.position(rest);
+        }
+        writing.flip();
+        if (!discard && channel != null && writing.hasRemaining()) {
+            journalBytes += writing.remaining();
+            while (writing.hasRemaining()) channel.write(writing);
+            channel.force(false);
+        }
+        if (chart != null) rewrite(chart, tempo);
+        return chart != null;
+    }
+
+    // 새 스냅샷과 빈 저널로 교체. 스냅샷을 먼저 옮기므로 중간에 죽어도 세대 번호가 달라 옛 저널은 무시된다
+    private void rewrite(NoteChart chart, TempoMap tempo) throws IOException {
+        long next = generation + 1;
+        Path baseTmp = basePath.resolveSibling(BASE_FILE + ".tmp");
+        ChartFile.save(baseTmp, chart, tempo, ticksPerRow, next);
+        move(baseTmp, basePath);
+
+        Path journalTmp = journalPath.resolveSibling(JOURNAL_FILE + ".tmp");
+        if (channel != null) channel.close();
+        channel = FileChannel.open(journalTmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = newBuffer(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putLong(next).flip();
+        while (header.hasRemaining()) channel.write(header);
+        channel.force(false);
+        move(journalTmp, journalPath);
+        generation = next;
+        journalBytes = HEADER_BYTES;
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
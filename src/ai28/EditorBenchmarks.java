@@ -0,0 +1,561 @@
+package ai28;
+
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import javax.swing.JTable;
+import javax.swing.JViewport;
+
+// --- 성능 측정용 진입점 (GUI 없이 실행) ---
+// java -cp bin ai28.EditorBenchmarks [--sizes 1000,100000] [--only ingest,export] [--json result.json]
+// 1k / 100k / 1M 노트의 생성 차트로 편집기의 주요 경로를 잰다.
+// 결과는 표로 출력하고, --json 을 주면 변경 전후 비교용으로 같은 내용을 JSON 으로도 쓴다.
+class EditorBenchmarks {
+    static final int[] DEFAULT_SIZES = {1_000, 100_000, 1_000_000};
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 10;
+    // 화면 한 장: 보이는 행 수
+    private static final int VIEW_ROWS = 40;
+    private static final int ROW_HEIGHT = 26;
+    private static final int TICKS_PER_ROW = 10;
+    private static final int JUDGMENT_OFFSET = 30;
+
+    // 결과가 최적화로 사라지지 않도록 모아 두는 값
+    static long sink;
+
+    interface Body { long run() throws Exception; }
+
+    static class Result {
+        final String name;
+        final int size;
+        final double nsPerOp, bytesPerOp;
+        Result(String name, int size, double nsPerOp, double bytesPerOp) {
+            this.name = name;
+            this.size = size;
+            this.nsPerOp = nsPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+
+    static final List<Result> results = new ArrayList<>();
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t
+            && t.isThreadAllocatedMemorySupported() ? t : null;
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    // ops 는 한 번 run() 할 때의 처리 개수. 가장 빠른 라운드의 시간과 라운드 평균 할당량을 남긴다
+    static void measure(String name, int size, long ops, Body body) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) sink += body.run();
+        long best = Long.MAX_VALUE;
+        long alloc0 = allocatedBytes();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long t0 = System.nanoTime();
+            sink += body.run();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        double bytesPerOp = THREADS != null ? (double) (allocatedBytes() - alloc0) / MEASURE_ROUNDS / ops : -1;
+        Result r = new Result(name, size, (double) best / ops, bytesPerOp);
+        results.add(r);
+        System.out.printf("%-22s %9d %12.1f ns/op %14.0f ops/s %10.1f B/op%n",
+                name, size, r.nsPerOp, 1e9 / r.nsPerOp, r.bytesPerOp);
+    }
+
+    // --- 데이터 생성 ---
+
+    // 템포 변화가 많은 곡을 흉내 낸 템포 맵 (segments 개 구간)
+    static TempoMap randomTempoMap(int segments, long lengthTicks, long seed) {
+        Random rnd = new Random(seed);
+        long[] ticks = new long[segments];
+        int[] mpqs = new int[segments];
+        for (int i = 0; i < segments; i++) {
+            ticks[i] = (long) (rnd.nextDouble() * lengthTicks);
+            mpqs[i] = 300_000 + rnd.nextInt(600_000);
+        }
+        return TempoMap.build(480, ticks, mpqs, segments);
+    }
+
+    // 노트가 평균 2행마다 하나 오는 길이
+    static long lengthFor(int notes) { return (long) notes * TICKS_PER_ROW * 2; }
+
+    // 무작위 차트 (notes 개, 레인/pitch 무작위, 행 단위 tick)
+    static NoteChart randomChart(int notes, long lengthTicks, long seed) {
+        Random rnd = new Random(seed);
+        NoteChart.Builder b = new NoteChart.Builder();
+        for (int i = 0; i < notes; i++) {
+            int pitch = rnd.nextInt(128);
+            b.add((long) (rnd.nextDouble() * lengthTicks) / TICKS_PER_ROW * TICKS_PER_ROW,
+                  MidiChartReader.laneOf(pitch), pitch, 1 + rnd.nextInt(127));
+        }
+        return b.build();
+    }
+
+    // MIDI 파일을 연 것과 같은 시퀀스 (NOTE_ON 만, 트랙 하나)
+    // Track.add 는 뒤에서부터 끼울 자리를 찾으므로 tick 을 미리 정렬해 두어야 빨리 만들어진다
+    static Sequence randomSequence(int notes, long lengthTicks, long seed) throws Exception {
+        Random rnd = new Random(seed);
+        long[] ticks = new long[notes];
+        for (int i = 0; i < notes; i++) ticks[i] = (long) (rnd.nextDouble() * lengthTicks);
+        Arrays.sort(ticks);
+        Sequence seq = new Sequence(Sequence.PPQ, 480);
+        Track track = seq.createTrack();
+        for (int i = 0; i < notes; i++) {
+            ShortMessage on = new ShortMessage(ShortMessage.NOTE_ON, 0, rnd.nextInt(128), 1 + rnd.nextInt(127));
+            track.add(new MidiEvent(on, ticks[i]));
+        }
+        return seq;
+    }
+
+    static ChartTableModel modelFor(NoteChart chart) {
+        ChartTableModel model = new ChartTableModel(TICKS_PER_ROW, JUDGMENT_OFFSET);
+        model.setChart(chart, (int) (chart.lastTick() / TICKS_PER_ROW) + 500);
+        return model;
+    }
+
+    // --- 측정 항목 ---
+
+    // loadMidiFile 과 같은 경로: 시퀀스 -> 차트 / .rchart 열기 / 노트 목록 가져오기
+    static void ingest(int size) throws Exception {
+        long length = lengthFor(size);
+        Sequence seq = randomSequence(size, length, 1);
+        MidiChartReader reader = new MidiChartReader();
+        measure("ingest.midi", size, size, () -> reader.buildChart(seq, MidiChartReader.SILENT).size());
+
+        // [추가] 16 트랙 x 채널 하나씩의 .mid: 통째로 읽기 / 훑어보기 / 트랙 하나만 골라 가져오기 / 재생용 Sequence
+        Sequence multi = new Sequence(Sequence.PPQ, 480);
+        Random rnd = new Random(1);
+        for (int t = 0; t < 16; t++) {
+            Track track = multi.createTrack();
+            for (int i = 0; i < size / 16; i++) {
+                track.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, t, rnd.nextInt(128), 1 + rnd.nextInt(127)), (long) i * length / Math.max(1, size / 16)));
+            }
+        }
+        Path mid = Files.createTempFile("bench", ".mid");
+        try {
+            MidiSystem.write(multi, 1, mid.toFile());
+            measure("ingest.midiFile", size, size, () -> reader.read(mid.toFile(), MidiChartReader.SILENT).chart.size());
+            measure("ingest.prescan", size, size, () -> MidiFileScanner.open(mid).noteSourceCount());
+            MidiFileScanner scanner = MidiFileScanner.open(mid);
+            int[] oneTrack = new int[scanner.trackCount()];
+            oneTrack[0] = 1;
+            measure("ingest.oneTrack", size, size / 16, () -> reader.read(scanner, oneTrack, MidiChartReader.SILENT).chart.size());
+            measure("ingest.playbackSequence", size, size, () -> scanner.toSequence().getTracks().length);
+        } finally {
+            Files.deleteIfExists(mid);
+        }
+
+        NoteChart chart = randomChart(size, length, 1);
+        Path rchart = Files.createTempFile("bench", ChartFile.EXTENSION);
+        Path txt = Files.createTempFile("bench", ".txt");
+        try {
+            ChartFile.save(rchart, chart, TempoMap.constant(480, TempoMap.DEFAULT_MPQ), TICKS_PER_ROW);
+            measure("ingest.rchart", size, size, () -> ChartFile.load(rchart).chart.size());
+            new ChartExporter().export(chart, txt, ChartExporter.Format.LINES);
+            NoteListParser parser = new NoteListParser();
+            measure("ingest.notelist", size, size, () -> parser.parse(txt, MidiChartReader.SILENT).size());
+        } finally {
+            Files.deleteIfExists(rchart);
+            Files.deleteIfExists(txt);
+        }
+    }
+
+    // 가져오기 레인 배정 (정책별). 입력은 tick 순이라 정렬 없이 노트당 O(1) 이어야 한다
+    static void lanes(int size) throws Exception {
+        long length = lengthFor(size) / 4; // 한 행에 여러 노트가 겹치도록 촘촘하게
+        Random rnd = new Random(9);
+        long[] ticks = new long[size];
+        byte[] pitches = new byte[size];
+        for (int i = 0; i < size; i++) ticks[i] = (long) (rnd.nextDouble() * length) / TICKS_PER_ROW * TICKS_PER_ROW;
+        Arrays.sort(ticks);
+        for (int i = 0; i < size; i++) pitches[i] = (byte) rnd.nextInt(128);
+        String[] names = {"nearest", "chord", "hand"};
+        for (String name : names) {
+            LaneAllocator.Policy policy = LaneAllocator.policyOf(name);
+            measure("lanes." + name, size, size, () -> {
+                LaneAllocator a = new LaneAllocator(policy);
+                for (int i = 0; i < size; i++) a.add(ticks[i], pitches[i], 100);
+                return a.build().size() + a.getDisplaced() + a.getDropped();
+            });
+        }
+    }
+
+    // 실행 취소: 노트 하나 편집 / 전체의 10% 를 지우는 일괄 편집 / 격자 맞추기를 적용하고 되돌리기
+    static void undo(int size) throws Exception {
+        NoteChart chart = randomChart(size, lengthFor(size), 2);
+        Random rnd = new Random(3);
+
+        final int singles = 1000;
+        ChartEdit[] edits = new ChartEdit[singles];
+        for (int i = 0; i < singles; i++) {
+            int idx = rnd.nextInt(chart.size());
+            edits[i] = new ChartEdit("삭제");
+            edits[i].set(chart, chart.tickAt(idx), chart.laneAt(idx), NoteChart.EMPTY);
+        }
+        measure("undo.single", size, singles * 2L, () -> {
+            for (ChartEdit e : edits) { e.apply(chart); e.revert(chart); }
+            return chart.size();
+        });
+
+        ChartEdit bulk = new ChartEdit("삭제");
+        for (int i = 0; i < chart.size(); i += 10) bulk.set(chart, chart.tickAt(i), chart.laneAt(i), NoteChart.EMPTY);
+        measure("undo.bulk10%", size, bulk.count() * 2L, () -> {
+            bulk.apply(chart);
+            bulk.revert(chart);
+            return chart.size();
+        });
+        measure("undo.snapshot", size, size, () -> chart.snapshot().size());
+
+        // Ctrl+Q: 전체를 1/16 격자에 맞추는 편집 만들기 + 적용 + 되돌리기
+        SnapGrid grid = new SnapGrid(480, 16, false);
+        measure("undo.requantize", size, size, () -> {
+            ChartEdit e = grid.requantize(chart, 0, NoteChart.MAX_TICK + 1);
+            e.apply(chart);
+            e.revert(chart);
+            return e.count();
+        });
+    }
+
+    // 여러 칸 선택: 차트 전체를 시간 구간으로 고른 뒤 각 일괄 편집 만들기 + 적용 + 되돌리기
+    static void selection(int size) throws Exception {
+        NoteChart chart = randomChart(size, lengthFor(size), 4);
+        ChartSelection sel = new ChartSelection(MidiChartReader.DEFAULT_TICKS_PER_ROW);
+        sel.setRect(0, chart.tickAt(chart.size() - 1) + 1, ChartSelection.ALL_LANES);
+        measure("select.copyPaste", size, size, () -> {
+            ChartEdit e = ChartSelection.paste(chart, sel.copy(chart), 1);
+            e.apply(chart);
+            e.revert(chart);
+            return e.count();
+        });
+        measure("select.shift", size, size, () -> applyRevert(chart, sel.shift(chart, 120)));
+        measure("select.mirror", size, size, () -> applyRevert(chart, sel.mirror(chart)));
+        measure("select.transpose", size, size, () -> applyRevert(chart, sel.transpose(chart, 12)));
+        measure("select.delete", size, size, () -> applyRevert(chart, sel.delete(chart)));
+    }
+
+    private static int applyRevert(NoteChart chart, ChartEdit e) {
+        e.apply(chart);
+        e.revert(chart);
+        return e.count();
+    }
+
+    // 위치 색인: 처음 만들기 / 레인·음 높이·화음 다음 찾기 / 노트 하나 넣고 빼기 (색인 같이 고치기)
+    static void index(int size) throws Exception {
+        NoteChart chart = randomChart(size, lengthFor(size), 5);
+        long length = chart.lastTick() + 1;
+        measure("index.build", size, size, () -> new NoteIndex(chart).chordCount());
+        NoteIndex index = chart.index();
+        Random rnd = new Random(6);
+        final int n = 100_000;
+        long[] ticks = new long[n];
+        for (int i = 0; i < n; i++) ticks[i] = (long) (rnd.nextDouble() * length);
+        measure("index.nextInLane", size, n, () -> {
+            long acc = 0;
+            for (int i = 0; i < n; i++) acc += index.nextInLane(i & 7, ticks[i]);
+            return acc;
+        });
+        measure("index.nextWithPitch", size, n, () -> {
+            long acc = 0;
+            for (int i = 0; i < n; i++) acc += index.nextWithPitch(36 + (i & 31), ticks[i]);
+            return acc;
+        });
+        measure("index.nextChord", size, n, () -> {
+            long acc = 0;
+            for (int i = 0; i < n; i++) acc += index.nextChord(ticks[i]);
+            return acc;
+        });
+        final int edits = 1000;
+        measure("index.putRemove", size, edits * 2L, () -> {
+            for (int i = 0; i < edits; i++) {
+                long tick = ticks[i] | 1;
+                int lane = i & 7;
+                if (chart.put(tick, lane, NoteChart.cell(60, 100)) == NoteChart.EMPTY) chart.remove(tick, lane);
+            }
+            return chart.size();
+        });
+    }
+
+    // 통계: 처음 만들기 / 아무 시간 구간 노트 수 / 편집 하나 반영 / 패널 한 번 그리기
+    static void stats(int size) throws Exception {
+        NoteChart chart = randomChart(size, lengthFor(size), 6);
+        TempoMap tempo = TempoMap.constant(480, TempoMap.DEFAULT_MPQ);
+        measure("stats.build", size, size, () -> ChartStats.of(chart, tempo).total());
+        ChartStats stats = ChartStats.of(chart, tempo);
+        long length = stats.lengthMicros();
+        Random rnd = new Random(8);
+        final int n = 100_000;
+        long[] from = new long[n];
+        for (int i = 0; i < n; i++) from[i] = (long) (rnd.nextDouble() * length);
+        measure("stats.range", size, n, () -> {
+            long acc = 0;
+            for (int i = 0; i < n; i++) acc += stats.count((i & 7) - 1, from[i], from[i] + 5_000_000);
+            return acc;
+        });
+        ChartEdit edit = new ChartEdit("삭제");
+        for (int i = 0; i < 1000; i++) {
+            int idx = rnd.nextInt(chart.size());
+            edit.set(chart, chart.tickAt(idx), chart.laneAt(idx), NoteChart.EMPTY);
+        }
+        measure("stats.apply", size, edit.count() * 2L, () -> {
+            stats.apply(edit, false);
+            stats.apply(edit, true);
+            return stats.peakNps();
+        });
+        ChartStatsPanel panel = new ChartStatsPanel(() -> stats, () -> length / 2);
+        panel.setSize(800, panel.getPreferredSize().height);
+        BufferedImage image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        measure("stats.panel", size, 1, () -> {
+            panel.paint(g);
+            return panel.getWidth();
+        });
+        g.dispose();
+    }
+
+    // 화면 한 장(VIEW_ROWS x 8 칸)을 차트 곳곳에서 그리기: 테이블 렌더러 / 하이웨이 뷰
+    static void render(int size) throws Exception {
+        NoteChart chart = randomChart(size, lengthFor(size), 4);
+        ChartTableModel model = modelFor(chart);
+        JTable table = new JTable(model);
+        table.setRowHeight(ROW_HEIGHT);
+        table.setSize(8 * 80, model.getRowCount() * ROW_HEIGHT);
+        NoteCellRenderer renderer = new NoteCellRenderer(JUDGMENT_OFFSET);
+        TickScale scale = new TickScale(table, model);
+        NoteHighwayView highway = new NoteHighwayView(table, model, scale);
+        TimelineRuler ruler = new TimelineRuler(table, model, scale, () -> TempoMap.constant(480, TempoMap.DEFAULT_MPQ),
+                                                () -> MeterMap.constant(480));
+        highway.setSize(highway.getPreferredSize());
+        ruler.setSize(ruler.getPreferredSize());
+        BufferedImage image = new BufferedImage(8 * 80, VIEW_ROWS * ROW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+
+        final int frames = 200;
+        int[] topRows = new int[frames];
+        Random rnd = new Random(5);
+        for (int i = 0; i < frames; i++) topRows[i] = rnd.nextInt(Math.max(1, model.getRowCount() - VIEW_ROWS));
+        long cells = (long) frames * VIEW_ROWS * NoteChart.COLUMN_COUNT;
+
+        measure("render.cells", size, cells, () -> {
+            long acc = 0;
+            for (int top : topRows) {
+                for (int row = top; row < top + VIEW_ROWS; row++) {
+                    for (int c = 0; c < NoteChart.COLUMN_COUNT; c++) {
+                        Object v = model.getValueAt(row, c);
+                        Component comp = renderer.getTableCellRendererComponent(table, v, false, false, row, c);
+                        comp.setBounds(0, 0, 80, ROW_HEIGHT);
+                        Graphics2D cg = (Graphics2D) g.create(c * 80, (row - top) * ROW_HEIGHT, 80, ROW_HEIGHT);
+                        comp.paint(cg);
+                        cg.dispose();
+                        if (v != null) acc++;
+                    }
+                }
+            }
+            return acc;
+        });
+        measure("render.highway", size, cells, () -> {
+            for (int top : topRows) {
+                Graphics2D hg = (Graphics2D) g.create();
+                hg.translate(0, -top * ROW_HEIGHT);
+                hg.clipRect(0, top * ROW_HEIGHT, image.getWidth(), VIEW_ROWS * ROW_HEIGHT);
+                highway.paintComponent(hg);
+                hg.dispose();
+            }
+            return image.getRGB(1, 1);
+        });
+        measure("render.ruler", size, frames, () -> {
+            for (int top : topRows) {
+                Graphics2D hg = (Graphics2D) g.create();
+                hg.translate(0, -top * ROW_HEIGHT);
+                hg.clipRect(0, top * ROW_HEIGHT, ruler.getWidth(), VIEW_ROWS * ROW_HEIGHT);
+                ruler.paintComponent(hg);
+                hg.dispose();
+            }
+            return image.getRGB(1, 1);
+        });
+        // 노트 넷 중 하나를 8행짜리 롱노트로: 몸통은 노트마다 사각형 하나 (칸마다 그리지 않는다)
+        ChartEdit holds = new ChartEdit("롱노트");
+        for (int i = 0; i < chart.size(); i += 4) {
+            holds.record(chart.tickAt(i), chart.laneAt(i), chart.cellAt(i), NoteChart.withDuration(chart.cellAt(i), 8L * TICKS_PER_ROW));
+        }
+        holds.apply(chart);
+        measure("render.highwayHolds", size, cells, () -> {
+            for (int top : topRows) {
+                Graphics2D hg = (Graphics2D) g.create();
+                hg.translate(0, -top * ROW_HEIGHT);
+                hg.clipRect(0, top * ROW_HEIGHT, image.getWidth(), VIEW_ROWS * ROW_HEIGHT);
+                highway.paintComponent(hg);
+                hg.dispose();
+            }
+            return image.getRGB(1, 1);
+        });
+        holds.revert(chart);
+        // 전체 차트가 한 화면에 들어오는 배율: 보이는 노트 수와 상관없이 픽셀 줄 수에 비례해야 한다
+        scale.setZoom(scale.minZoom(VIEW_ROWS * ROW_HEIGHT));
+        highway.setSize(highway.getPreferredSize());
+        ruler.setSize(ruler.getPreferredSize());
+        measure("render.overview", size, frames, () -> {
+            for (int i = 0; i < frames; i++) {
+                Graphics2D hg = (Graphics2D) g.create();
+                hg.clipRect(0, 0, image.getWidth(), VIEW_ROWS * ROW_HEIGHT);
+                highway.paintComponent(hg);
+                ruler.paintComponent(hg);
+                hg.dispose();
+            }
+            return image.getRGB(1, 1);
+        });
+
+        // 미니맵: 처음 한 번 전체 그리기 / 재생 중 한 프레임 (뷰포트만 움직임) / 편집 한 번 + 프레임 (바뀐 줄만)
+        JViewport viewport = new JViewport();
+        viewport.setSize(image.getWidth(), VIEW_ROWS * ROW_HEIGHT);
+        int mapHeight = VIEW_ROWS * ROW_HEIGHT;
+        ChartMinimap minimap = new ChartMinimap(model, scale, viewport);
+        // 높이가 바뀌면 캐시 이미지를 통째로 다시 그린다
+        int[] flip = {0};
+        measure("render.minimapFull", size, 1, () -> {
+            minimap.setSize(ChartMinimap.WIDTH, mapHeight - (flip[0] ^= 1));
+            minimap.paintComponent(g);
+            return minimap.getHeight();
+        });
+        minimap.setSize(ChartMinimap.WIDTH, mapHeight);
+        minimap.paintComponent(g);
+        measure("render.minimapFrame", size, frames, () -> {
+            for (int i = 0; i < frames; i++) {
+                viewport.setViewPosition(new Point(0, topRows[i]));
+                minimap.paintComponent(g);
+            }
+            return image.getRGB(1, 1);
+        });
+        measure("render.minimapEdit", size, frames, () -> {
+            for (int top : topRows) {
+                model.fireTicksUpdated(model.rowToTick(top), model.rowToTick(top) + 100);
+                minimap.paintComponent(g);
+            }
+            return image.getRGB(1, 1);
+        });
+        g.dispose();
+    }
+
+    // Ctrl+S 내보내기 (임시 파일 + 원자적 교체까지) / 바이너리 차트 저장
+    static void export(int size) throws Exception {
+        NoteChart chart = randomChart(size, lengthFor(size), 6);
+        ChartExporter exporter = new ChartExporter();
+        Path out = Files.createTempFile("bench", ".txt");
+        try {
+            measure("export.lines", size, size, () -> exporter.export(chart, out, ChartExporter.Format.LINES));
+            measure("export.rchart", size, size, () -> {
+                ChartFile.save(out, chart, TempoMap.constant(480, TempoMap.DEFAULT_MPQ), TICKS_PER_ROW);
+                return size;
+            });
+        } finally {
+            Files.deleteIfExists(out);
+        }
+    }
+
+    // scrollToTick / calculateTickFromView 가 쓰는 tick <-> 행 변환
+    static void tickRow(int size) throws Exception {
+        ChartTableModel model = modelFor(randomChart(size, lengthFor(size), 7));
+        final int n = 1_000_000;
+        int[] rows = new int[n];
+        long[] ticks = new long[n];
+        Random rnd = new Random(8);
+        for (int i = 0; i < n; i++) {
+            rows[i] = rnd.nextInt(model.getRowCount());
+            ticks[i] = Math.max(0, model.rowToTick(rows[i])) + rnd.nextInt(TICKS_PER_ROW);
+        }
+        measure("convert.rowToTick", size, n, () -> {
+            long acc = 0;
+            for (int i = 0; i < n; i++) acc += model.rowToTick(rows[i]);
+            return acc;
+        });
+        measure("convert.tickToRow", size, n, () -> {
+            long acc = 0;
+            for (int i = 0; i < n; i++) acc += model.tickToRow(ticks[i]);
+            return acc;
+        });
+    }
+
+    static void tempoMapConversions() throws Exception {
+        final int n = 1_000_000;
+        long length = 480L * 4 * 2000;
+        TempoMap map = randomTempoMap(2000, length, 1);
+        long[] ticks = new long[n];
+        Random rnd = new Random(2);
+        for (int i = 0; i < n; i++) ticks[i] = (long) (rnd.nextDouble() * length);
+        double[] micros = new double[n];
+        for (int i = 0; i < n; i++) micros[i] = map.tickToMicros((double) ticks[i]);
+
+        measure("tempo.tickToMicros", 2000, n, () -> {
+            long acc = 0;
+            for (int i = 0; i < n; i++) acc += map.tickToMicros(ticks[i]);
+            return acc;
+        });
+        measure("tempo.microsToTick", 2000, n, () -> {
+            long acc = 0;
+            for (int i = 0; i < n; i++) acc += (long) map.microsToTick(micros[i]);
+            return acc;
+        });
+    }
+
+    static void writeJson(Path path) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"java\":\"").append(System.getProperty("java.version"))
+          .append("\",\"timestamp\":").append(System.currentTimeMillis()).append(",\"results\":[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            sb.append(String.format(Locale.ROOT,
+                    "{\"name\":\"%s\",\"size\":%d,\"nsPerOp\":%.3f,\"opsPerSec\":%.0f,\"bytesPerOp\":%.2f}",
+                    r.name, r.size, r.nsPerOp, 1e9 / r.nsPerOp, r.bytesPerOp));
+            sb.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        sb.append("]}\n");
+        Files.writeString(path, sb, StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = DEFAULT_SIZES;
+        List<String> only = null;
+        Path json = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sizes" -> sizes = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "--only" -> only = Arrays.asList(args[++i].split(","));
+                case "--json" -> json = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("알 수 없는 옵션: " + args[i]);
+            }
+        }
+        System.setProperty("java.awt.headless", "true");
+        for (int size : sizes) {
+            if (only == null || only.contains("ingest")) ingest(size);
+            if (only == null || only.contains("lanes")) lanes(size);
+            if (only == null || only.contains("undo")) undo(size);
+            if (only == null || only.contains("select")) selection(size);
+            if (only == null || only.contains("index")) index(size);
+            if (only == null || only.contains("stats")) stats(size);
+            if (only == null || only.contains("render")) render(size);
+            if (only == null || only.contains("export")) export(size);
+            if (only == null || only.contains("convert")) tickRow(size);
+        }
+        if (only == null || only.contains("tempo")) tempoMapConversions();
+        if (json != null) writeJson(json);
+        System.out.println("sink=" + sink);
+    }
+}
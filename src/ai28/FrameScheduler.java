@@ -0,0 +1,128 @@
+package ai28;
+
+import java.awt.Toolkit;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.swing.SwingUtilities;
+
+// --- 화면 갱신 주기 관리 (Swing Timer 대체) ---
+// 전용 스레드가 nanoTime 기준의 고정 마감 시각에 맞춰 프레임을 깨우고, 실제 그리기는 EDT 에 한 번씩 넘긴다.
+// EDT 가 이전 프레임을 아직 처리 중이면 새 프레임을 쌓지 않고 건너뛴다.
+// 실제 프레임 간격과 목표 간격의 차이(jitter)를 기록해 p50 / p99 를 볼 수 있다.
+class FrameScheduler {
+    // EDT 에서 호출된다. nowNanos 는 이번 프레임의 마감 시각
+    interface FrameCallback { void frame(long nowNanos); }
+
+    private static final int STATS_SIZE = 1024;
+
+    private final FrameCallback callback;
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final Runnable edtFrame = this::runFrame;
+    private volatile long periodNanos;
+    private volatile Thread thread;
+    private volatile long deadline;
+
+    // 통계 (EDT 에서만 기록)
+    private final long[] jitter = new long[STATS_SIZE];
+    private int jitterCount, jitterPos;
+    private long lastFrameNanos;
+    private volatile long skippedFrames;
+
+    FrameScheduler(int targetFps, FrameCallback callback) {
+        this.callback = callback;
+        setTargetFps(targetFps);
+    }
+
+    // 모니터 주사율을 알 수 있으면 그 값, 아니면 60
+    static int displayRefreshRate() {
+        try {
+            int hz = java.awt.GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+            return hz > 0 ? hz : 60;
+        } catch (Exception e) { return 60; }
+    }
+
+    void setTargetFps(int fps) { periodNanos = 1_000_000_000L / Math.max(1, Math.min(1000, fps)); }
+    int getTargetFps() { return (int) (1_000_000_000L / periodNanos); }
+
+    synchronized void start() {
+        if (thread != null) return;
+        resetStats();
+        deadline = System.nanoTime();
+        Thread t = new Thread(this::loop, "frame-scheduler");
+        t.setDaemon(true);
+        t.setPriority(Thread.MAX_PRIORITY);
+        thread = t;
+        t.start();
+    }
+
+    synchronized void stop() {
+        Thread t = thread;
+        thread = null;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    boolean isRunning() { return thread != null; }
+
+    private void loop() {
+        Thread self = Thread.currentThread();
+        long next = System.nanoTime();
+        while (thread == self) {
+            next += periodNanos;
+            long now;
+            while ((now = System.nanoTime()) < next && thread == self) LockSupport.parkNanos(next - now);
+            // 너무 밀렸으면 따라잡으려 몰아서 돌지 않고 지금 시점부터 다시 센다
+            if (now - next > periodNanos * 4) next = now;
+            if (pending.compareAndSet(false, true)) {
+                deadline = next;
+                SwingUtilities.invokeLater(edtFrame);
+            } else {
+                skippedFrames++;
+            }
+        }
+    }
+
+    private void runFrame() {
+        long now = System.nanoTime();
+        try {
+            if (thread != null) {
+                callback.frame(deadline);
+                Toolkit.getDefaultToolkit().sync();
+            }
+        } finally {
+            if (lastFrameNanos != 0) record(Math.abs((now - lastFrameNanos) - periodNanos));
+            lastFrameNanos = now;
+            pending.set(false);
+        }
+    }
+
+    private void record(long jitterNanos) {
+        jitter[jitterPos] = jitterNanos;
+        jitterPos = (jitterPos + 1) % STATS_SIZE;
+        if (jitterCount < STATS_SIZE) jitterCount++;
+    }
+
+    void resetStats() {
+        jitterCount = jitterPos = 0;
+        lastFrameNanos = 0;
+        skippedFrames = 0;
+    }
+
+    // 최근 프레임들의 jitter 백분위 (ms). EDT 에서 호출
+    double jitterPercentileMillis(double p) {
+        if (jitterCount == 0) return 0;
+        long[] copy = Arrays.copyOf(jitter, jitterCount);
+        Arrays.sort(copy);
+        int idx = (int) Math.min(jitterCount - 1, Math.ceil(p / 100.0 * jitterCount) - 1);
+        return copy[Math.max(0, idx)] / 1_000_000.0;
+    }
+
+    long getSkippedFrames() { return skippedFrames; }
+
+    String statsText() {
+        return String.format("%dfps 목표, jitter p50 %.2fms / p99 %.2fms, 건너뜀 %d",
+                getTargetFps(), jitterPercentileMillis(50), jitterPercentileMillis(99), skippedFrames);
+    }
+}
@@ -0,0 +1,132 @@
+package ai28;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.Receiver;
+import javax.sound.midi.Sequencer;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Synthesizer;
+
+// --- 판정선 타격음 스케줄러 ---
+// 화면 프레임과 상관없이 전용 스레드가 조금 앞(LOOKAHEAD)의 노트를 미리 읽어
+// 신디사이저 시간 기준의 타임스탬프를 붙여 보낸다. 프레임이 밀려도 소리 시점은 흔들리지 않는다.
+// 노트 시각은 템포 맵으로 계산하므로 곡 중간에 템포가 바뀌어도 맞는다.
+// 이미 지나간 노트는 늦음(late)으로 바로 보내고, 너무 늦었으면 버리고(dropped) 개수만 센다.
+class HitSoundScheduler {
+    static final long LOOKAHEAD_MICROS = 80_000;
+    static final long WAKE_NANOS = 5_000_000;
+    static final long LATE_DROP_MICROS = 30_000;
+    static final long NOTE_LENGTH_MICROS = 200_000;
+    static final int VELOCITY = 100;
+
+    private final Sequencer sequencer;
+    private final Synthesizer synth;
+    private final Receiver receiver;
+    private final Supplier<NoteChart> chartSupplier;
+    private final Supplier<TempoMap> tempoMap;
+    private final ShortMessage msg = new ShortMessage();
+    private final long[] keyBuf = new long[256];
+    private final byte[] pitchBuf = new byte[256];
+    private final long[] endBuf = new long[256];
+
+    private volatile Thread thread;
+    private volatile long lateCount, droppedCount, sentCount;
+
+    HitSoundScheduler(Sequencer sequencer, Synthesizer synth, Receiver receiver,
+                      Supplier<NoteChart> chartSupplier, Supplier<TempoMap> tempoMap) {
+        this.sequencer = sequencer;
+        this.synth = synth;
+        this.receiver = receiver;
+        this.chartSupplier = chartSupplier;
+        this.tempoMap = tempoMap;
+    }
+
+    synchronized void start(long fromTick) {
+        stop();
+        lateCount = droppedCount = sentCount = 0;
+        Thread t = new Thread(() -> loop(fromTick), "hit-sound-scheduler");
+        t.setDaemon(true);
+        t.setPriority(Thread.MAX_PRIORITY);
+        thread = t;
+        t.start();
+    }
+
+    // 옛 루프가 끝날 때까지 기다린다: 버퍼와 msg 는 루프 하나만 쓰므로 start 가 곧바로 새 루프를 띄워도 겹치지 않는다
+    // (깨우면 dispatch 한 번 안에 끝난다. 스케줄러 스레드가 stop 을 부르는 일은 없다)
+    synchronized void stop() {
+        Thread t = thread;
+        thread = null;
+        if (t == null) return;
+        LockSupport.unpark(t);
+        boolean interrupted = false;
+        while (t.isAlive()) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    long getLateCount() { return lateCount; }
+    long getDroppedCount() { return droppedCount; }
+
+    String statsText() { return "타격음 " + sentCount + " (늦음 " + lateCount + ", 버림 " + droppedCount + ")"; }
+
+    private void loop(long fromTick) {
+        Thread self = Thread.currentThread();
+        PlaybackClock clock = new PlaybackClock(sequencer, tempoMap);
+        long nextTick = fromTick;
+        while (thread == self) {
+            if (sequencer.isRunning()) {
+                long nowMicros = clock.positionMicros(System.nanoTime());
+                TempoMap map = clock.tempoMap();
+                long windowEnd = (long) map.microsToTick(nowMicros + LOOKAHEAD_MICROS) + 1;
+                if (windowEnd > nextTick) {
+                    nextTick = dispatch(nextTick, windowEnd, nowMicros, map);
+                }
+            }
+            LockSupport.parkNanos(WAKE_NANOS);
+        }
+    }
+
+    // [from, to) 구간의 노트를 보내고 다음 시작 tick 을 돌려준다
+    private long dispatch(long from, long to, long nowMicros, TempoMap map) {
+        NoteChart chart = chartSupplier.get();
+        int n = chart.copyRange(from, to, keyBuf, pitchBuf, endBuf);
+        // 버퍼가 꽉 찼으면 마지막 tick 은 다음 번에 통째로 처리 (한 tick 에는 최대 COLUMN_COUNT 개)
+        long next = to;
+        if (n == keyBuf.length) {
+            next = NoteChart.tickOf(keyBuf[n - 1]);
+            while (NoteChart.tickOf(keyBuf[n - 1]) == next) n--;
+        }
+        long synthNow = synth.getMicrosecondPosition();
+        for (int i = 0; i < n; i++) {
+            long tick = NoteChart.tickOf(keyBuf[i]);
+            long dueMicros = map.tickToMicros(tick) - nowMicros;
+            if (dueMicros < -LATE_DROP_MICROS) { droppedCount++; continue; }
+            if (dueMicros < 0) { lateCount++; dueMicros = 0; }
+            long at = synthNow + dueMicros;
+            send(ShortMessage.NOTE_ON, pitchBuf[i], VELOCITY, at);
+            // [추가] 롱노트는 화면에 그려지는 길이만큼 (같은 레인 다음 노트에서 끊긴다) 울린다
+            long length = endBuf[i] == tick ? NOTE_LENGTH_MICROS
+                    : Math.max(NOTE_LENGTH_MICROS, map.tickToMicros(endBuf[i]) - map.tickToMicros(tick));
+            send(ShortMessage.NOTE_OFF, pitchBuf[i], 0, at + length);
+            sentCount++;
+        }
+        return next;
+    }
+
+    // 신디사이저 리시버는 타임스탬프가 있으면 메시지 내용을 복사해 두므로 같은 객체를 다시 써도 된다
+    private void send(int command, int pitch, int velocity, long timestamp) {
+        try {
+            msg.setMessage(command, 0, pitch, velocity);
+            receiver.send(msg, timestamp);
+        } catch (InvalidMidiDataException e) {
+            droppedCount++;
+        }
+    }
+}
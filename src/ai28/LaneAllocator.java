@@ -0,0 +1,172 @@
+package ai28;
+
+import java.util.Arrays;
+
+// --- 레인 배정기: 가져온 노트를 겹치지 않게 레인에 나눈다 ---
+// 예전에는 (pitch % 12) % COLUMN_COUNT 레인에 그대로 넣어 같은 칸이면 나중 노트가 덮어썼다.
+// 여기서는 노트를 tick 순서로 훑으며 같은 tick 에서 사용 중인 레인을 8비트 마스크로 들고 있고,
+// 빈 레인은 비트 연산(numberOfLeadingZeros / numberOfTrailingZeros)으로 O(1) 에 찾는다.
+// 어떤 빈 레인을 고를지는 Policy 로 바꿔 끼울 수 있다.
+// 원래 레인에서 밀려난 노트(displaced)와 자리가 없어 버린 노트(dropped)를 센다.
+// [추가] 롱노트는 끝날 때까지 그 레인을 차지한다 (레인마다 끝 tick 하나). 빈 레인이 없을 때만 누르고 있는 레인에
+// 넣고, 그러면 그 롱노트는 새 노트에서 끝난다 (NoteChart.holdEnd).
+class LaneAllocator {
+    // preferred: 원래 레인, free: 이번 tick 의 빈 레인 마스크, chordIndex / chordSize: 화음 안에서의 순서(pitch 오름차순)와 개수
+    // 고른 레인을 돌려준다. 자리가 없으면 -1
+    interface Policy {
+        int choose(LaneAllocator allocator, int preferred, int free, int chordIndex, int chordSize);
+    }
+
+    static final int ALL_LANES = (1 << NoteChart.COLUMN_COUNT) - 1;
+    // SCR S D F | SPACE J K L
+    static final int LEFT_HAND = 0x0F, RIGHT_HAND = 0xF0;
+    // 한쪽 손 쏠림이 이 값을 넘으면 반대쪽 손 레인부터 찾는다 (최근 노트일수록 무게가 큼)
+    private static final int BALANCE_LIMIT = 24;
+
+    // 예전 동작: 항상 원래 레인, 겹치면 덮어쓴다 (덮어쓴 노트는 dropped 로 센다)
+    static final Policy LEGACY = (a, preferred, free, k, m) -> preferred;
+    // 원래 레인이 차 있으면 가장 가까운 빈 레인
+    static final Policy NEAREST_FREE = (a, preferred, free, k, m) -> nearest(free, preferred);
+    // 화음은 낮은 음부터 왼쪽 -> 오른쪽으로 고르게 펼친다
+    static final Policy CHORD_SPREAD = (a, preferred, free, k, m) ->
+            nearest(free, m > 1 ? (k * (NoteChart.COLUMN_COUNT - 1) + (m - 1) / 2) / (m - 1) : preferred);
+    // 최근 노트가 한 손에 몰리면 반대 손 쪽 빈 레인을 먼저 쓴다
+    static final Policy HAND_BALANCE = (a, preferred, free, k, m) -> {
+        int hand = a.balance > BALANCE_LIMIT ? RIGHT_HAND : a.balance < -BALANCE_LIMIT ? LEFT_HAND : ALL_LANES;
+        int lane = nearest(free & hand, preferred);
+        return lane >= 0 ? lane : nearest(free, preferred);
+    };
+
+    static Policy policyOf(String name) {
+        return switch (name.toLowerCase(java.util.Locale.ROOT)) {
+            case "legacy" -> LEGACY;
+            case "nearest" -> NEAREST_FREE;
+            case "chord" -> CHORD_SPREAD;
+            case "hand" -> HAND_BALANCE;
+            default -> throw new IllegalArgumentException("알 수 없는 레인 정책: " + name);
+        };
+    }
+
+    // target 에서 가장 가까운 빈 레인 (거리가 같으면 왼쪽). 빈 레인이 없으면 -1
+    static int nearest(int free, int target) {
+        if ((free >>> target & 1) != 0) return target;
+        int below = free & ((1 << target) - 1);
+        int above = free >>> (target + 1);
+        int left = below == 0 ? -1 : 31 - Integer.numberOfLeadingZeros(below);
+        int right = above == 0 ? -1 : target + 1 + Integer.numberOfTrailingZeros(above);
+        if (left < 0) return right;
+        if (right < 0) return left;
+        return target - left <= right - target ? left : right;
+    }
+
+    private final Policy policy;
+    private int balance;
+
+    // 입력 노트 (tick, pitch, velocity, 길이)
+    private long[] ticks = new long[1024];
+    private byte[] pitches = new byte[1024];
+    private byte[] velocities = new byte[1024];
+    private char[] durations = new char[1024];
+    private int count;
+
+    private int displaced, dropped;
+
+    LaneAllocator(Policy policy) { this.policy = policy; }
+
+    // 넣은 노트의 번호를 돌려준다 (setDuration 용)
+    int add(long tick, int pitch, int velocity) {
+        if (tick < 0 || tick > NoteChart.MAX_TICK) throw new IllegalArgumentException("tick 범위 초과: " + tick);
+        if (count == ticks.length) {
+            ticks = Arrays.copyOf(ticks, count * 2);
+            pitches = Arrays.copyOf(pitches, count * 2);
+            velocities = Arrays.copyOf(velocities, count * 2);
+            durations = Arrays.copyOf(durations, count * 2);
+        }
+        ticks[count] = tick;
+        pitches[count] = (byte) pitch;
+        velocities[count] = (byte) velocity;
+        durations[count] = 0;
+        return count++;
+    }
+
+    long tickAt(int index) { return ticks[index]; }
+    void setDuration(int index, long duration) { durations[index] = (char) NoteChart.clampDuration(duration); }
+
+    int count() { return count; }
+    int getDisplaced() { return displaced; }
+    int getDropped() { return dropped; }
+
+    // 노트마다 O(1) 배정. 입력이 tick 순이 아니면(여러 트랙이 섞인 경우) 먼저 한 번 정렬한다
+    NoteChart build() {
+        int[] order = tickOrder();
+        NoteChart.Builder out = new NoteChart.Builder();
+        byte[] lanePitch = new byte[NoteChart.COLUMN_COUNT];
+        byte[] laneVelocity = new byte[NoteChart.COLUMN_COUNT];
+        char[] laneDuration = new char[NoteChart.COLUMN_COUNT];
+        // 레인마다 누르고 있는 롱노트가 끝나는 tick
+        long[] busyUntil = new long[NoteChart.COLUMN_COUNT];
+        int[] chord = new int[16];
+        displaced = dropped = 0;
+        balance = 0;
+        for (int i = 0; i < count; ) {
+            long tick = ticks[at(order, i)];
+            int j = i + 1;
+            while (j < count && ticks[at(order, j)] == tick) j++;
+            int m = j - i;
+            if (chord.length < m) chord = new int[Math.max(m, chord.length * 2)];
+            for (int k = 0; k < m; k++) chord[k] = at(order, i + k);
+            if (policy == CHORD_SPREAD) sortByPitch(chord, m);
+
+            int mask = 0, busy = 0;
+            for (int lane = 0; lane < busyUntil.length; lane++) if (busyUntil[lane] > tick) busy |= 1 << lane;
+            for (int k = 0; k < m; k++) {
+                int src = chord[k];
+                int pitch = pitches[src];
+                int preferred = MidiChartReader.laneOf(pitch);
+                int lane = policy.choose(this, preferred, ~(mask | busy) & ALL_LANES, k, m);
+                if (lane < 0 && (busy & ~mask) != 0) lane = policy.choose(this, preferred, ~mask & ALL_LANES, k, m);
+                if (lane < 0) { dropped++; continue; }
+                if ((mask >>> lane & 1) != 0) dropped++; // LEGACY: 덮어씀
+                else if (lane != preferred) displaced++;
+                mask |= 1 << lane;
+                lanePitch[lane] = (byte) pitch;
+                laneVelocity[lane] = velocities[src];
+                laneDuration[lane] = durations[src];
+                busyUntil[lane] = tick + durations[src];
+                balance += (lane < 4 ? 8 : -8) - (balance >> 3);
+            }
+            // 레인 순서대로 내보내므로 빌더는 정렬 없이 끝난다
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                int lane = Integer.numberOfTrailingZeros(bits);
+                out.add(tick, lane, lanePitch[lane], laneVelocity[lane], laneDuration[lane]);
+            }
+            i = j;
+        }
+        return out.build();
+    }
+
+    private static int at(int[] order, int i) { return order == null ? i : order[i]; }
+
+    // 이미 tick 순이면 null (정렬 없음)
+    private int[] tickOrder() {
+        boolean sorted = true;
+        for (int i = 1; i < count && sorted; i++) sorted = ticks[i - 1] <= ticks[i];
+        if (sorted) return null;
+        if (count > 1 << 24) throw new IllegalStateException("노트 수 초과: " + count);
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) packed[i] = (ticks[i] << 24) | i;
+        Arrays.sort(packed);
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) order[i] = (int) (packed[i] & 0xFFFFFF);
+        return order;
+    }
+
+    // 한 tick 의 화음은 몇 개 안 되므로 삽입 정렬 (같은 pitch 는 입력 순서 유지)
+    private void sortByPitch(int[] idx, int m) {
+        for (int a = 1; a < m; a++) {
+            int v = idx[a], b = a - 1;
+            while (b >= 0 && pitches[idx[b]] > pitches[v]) { idx[b + 1] = idx[b]; b--; }
+            idx[b + 1] = v;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ai28;
+
+import java.util.Arrays;
+
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.Track;
+
+// --- 박자 맵: tick -> 마디 / 박 ---
+// 모든 트랙의 박자 이벤트(0x58)를 모아 구간 표를 만든다. 구간 i 는 segTick[i] 에서 새 마디로 시작하고
+// 그때까지의 마디 수가 segMeasure[i], 박자는 num[i] / 2^denPow[i].
+// 박자가 마디 중간에서 바뀌면 그 자리에서 새 마디를 시작한 것으로 본다. TempoMap 처럼 만든 뒤에는 바뀌지 않는다.
+final class MeterMap {
+    private final int resolution;
+    private final long[] segTick;
+    private final long[] segMeasure;
+    private final int[] num;
+    private final int[] denPow;
+
+    private MeterMap(int resolution, long[] segTick, long[] segMeasure, int[] num, int[] denPow) {
+        this.resolution = resolution;
+        this.segTick = segTick;
+        this.segMeasure = segMeasure;
+        this.num = num;
+        this.denPow = denPow;
+    }
+
+    // 4/4
+    static MeterMap constant(int resolution) {
+        return new MeterMap(resolution, new long[]{0}, new long[]{0}, new int[]{4}, new int[]{2});
+    }
+
+    static MeterMap fromSequence(Sequence seq) {
+        if (seq.getDivisionType() != Sequence.PPQ) return constant(TempoMap.fromSequence(seq).getResolution());
+        int count = 0;
+        long[] ticks = new long[8];
+        int[] nums = new int[8], dens = new int[8];
+        for (Track track : seq.getTracks()) {
+            for (int i = 0; i < track.size(); i++) {
+                MidiEvent event = track.get(i);
+                if (event.getMessage() instanceof MetaMessage mm && mm.getType() == 0x58) {
+                    byte[] d = mm.getData();
+                    if (d.length < 2 || d[0] <= 0 || d[1] < 0 || d[1] > 6) continue;
+                    if (count == ticks.length) {
+                        ticks = Arrays.copyOf(ticks, count * 2);
+                        nums = Arrays.copyOf(nums, count * 2);
+                        dens = Arrays.copyOf(dens, count * 2);
+                    }
+                    ticks[count] = event.getTick();
+                    nums[count] = d[0];
+                    dens[count] = d[1];
+                    count++;
+                }
+            }
+        }
+        return build(seq.getResolution(), ticks, nums, dens, count);
+    }
+
+    // (tick, 분자, 분모 지수) 목록으로 구간 표 생성. 같은 tick 이면 나중 것이 남는다
+    static MeterMap build(int resolution, long[] ticks, int[] nums, int[] denPows, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(ticks[a], ticks[b]));
+
+        long[] segTick = new long[count + 1];
+        long[] segMeasure = new long[count + 1];
+        int[] num = new int[count + 1], denPow = new int[count + 1];
+        num[0] = 4;
+        denPow[0] = 2;
+        int n = 1;
+        for (int k = 0; k < count; k++) {
+            int i = order[k];
+            if (segTick[n - 1] == ticks[i]) { num[n - 1] = nums[i]; denPow[n - 1] = denPows[i]; continue; }
+            if (num[n - 1] == nums[i] && denPow[n - 1] == denPows[i]) continue;
+            segTick[n] = ticks[i];
+            num[n] = nums[i];
+            denPow[n] = denPows[i];
+            n++;
+        }
+        MeterMap partial = new MeterMap(resolution, segTick, segMeasure, num, denPow);
+        for (int i = 1; i < n; i++) {
+            long len = partial.ticksPerMeasure(i - 1);
+            segMeasure[i] = segMeasure[i - 1] + (segTick[i] - segTick[i - 1] + len - 1) / len;
+        }
+        return new MeterMap(resolution, Arrays.copyOf(segTick, n), Arrays.copyOf(segMeasure, n),
+                            Arrays.copyOf(num, n), Arrays.copyOf(denPow, n));
+    }
+
+    int segmentCount() { return segTick.length; }
+    long segmentTick(int i) { return segTick[i]; }
+    int numerator(int i) { return num[i]; }
+    int denominator(int i) { return 1 << denPow[i]; }
+
+    private long ticksPerBeat(int seg) { return Math.max(1, ((long) resolution * 4) >> denPow[seg]); }
+    private long ticksPerMeasure(int seg) { return ticksPerBeat(seg) * num[seg]; }
+
+    private int segmentFor(long tick) {
+        int lo = 0, hi = segTick.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (segTick[mid] <= tick) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    // 0 부터 세는 마디 번호
+    long measureAt(long tick) {
+        int s = segmentFor(tick);
+        return segMeasure[s] + (Math.max(0, tick - segTick[s])) / ticksPerMeasure(s);
+    }
+
+    // 마디 안에서 0 부터 세는 박 번호
+    int beatAt(long tick) {
+        int s = segmentFor(tick);
+        return (int) ((Math.max(0, tick - segTick[s]) % ticksPerMeasure(s)) / ticksPerBeat(s));
+    }
+
+    // tick 이후(tick 포함) 첫 마디의 시작 tick
+    long nextMeasureTick(long tick) {
+        int s = segmentFor(tick);
+        long tpm = ticksPerMeasure(s);
+        long measure = segTick[s] + (Math.max(0, tick - segTick[s]) + tpm - 1) / tpm * tpm;
+        if (s + 1 < segTick.length && segTick[s + 1] < measure) return segTick[s + 1];
+        return measure;
+    }
+
+    // 4분음표 하나의 tick 수 (눈금 간격을 고를 때 쓴다)
+    int getResolution() { return resolution; }
+
+    // tick 이후(tick 포함) 첫 박의 시작 tick
+    long nextBeatTick(long tick) {
+        int s = segmentFor(tick);
+        long tpb = ticksPerBeat(s);
+        long offset = Math.max(0, tick - segTick[s]);
+        // 마디 시작이 박의 기준이므로 마디 안에서의 위치로 올림한다
+        long tpm = ticksPerMeasure(s);
+        long measureStart = segTick[s] + offset / tpm * tpm;
+        long beat = measureStart + (tick - measureStart + tpb - 1) / tpb * tpb;
+        if (s + 1 < segTick.length && segTick[s + 1] < beat) return segTick[s + 1];
+        return beat;
+    }
+}
@@ -0,0 +1,125 @@
+package ai28;
+
+import java.io.File;
+
+import javax.sound.midi.*;
+
+// --- MIDI -> NoteChart 변환 (Swing 과 무관, 어느 스레드에서나 호출 가능) ---
+class MidiChartReader {
+    // 진행률 보고 / 취소 확인용
+    interface Listener {
+        void progress(int percent);
+        boolean isCancelled();
+    }
+
+    static final Listener SILENT = new Listener() {
+        @Override public void progress(int percent) {}
+        @Override public boolean isCancelled() { return false; }
+    };
+
+    static class Result {
+        final Sequence sequence;
+        final NoteChart chart;
+        final TempoMap tempoMap;
+        // 박자 이벤트가 없는 형식(.rchart, 노트 목록)은 4/4
+        final MeterMap meterMap;
+        // 레인 배정 결과: 원래 레인에서 밀려난 노트 / 자리가 없어 버린 노트
+        final int displaced, dropped;
+        // [추가] 트랙을 골라 가져왔으면 sequence 는 null 이고, 재생할 때 source.toSequence() 로 만든다
+        final MidiFileScanner source;
+        final long tickLength;
+        Result(Sequence sequence, NoteChart chart, TempoMap tempoMap) { this(sequence, chart, tempoMap, 0, 0); }
+        Result(Sequence sequence, NoteChart chart, TempoMap tempoMap, int displaced, int dropped) {
+            this(sequence, chart, tempoMap, MeterMap.constant(tempoMap.getResolution()), displaced, dropped);
+        }
+        Result(Sequence sequence, NoteChart chart, TempoMap tempoMap, MeterMap meterMap, int displaced, int dropped) {
+            this(sequence, null, sequence.getTickLength(), chart, tempoMap, meterMap, displaced, dropped);
+        }
+        Result(MidiFileScanner source, NoteChart chart, int displaced, int dropped) {
+            this(null, source, source.getTickLength(), chart, source.getTempoMap(), source.getMeterMap(), displaced, dropped);
+        }
+        private Result(Sequence sequence, MidiFileScanner source, long tickLength, NoteChart chart, TempoMap tempoMap,
+                       MeterMap meterMap, int displaced, int dropped) {
+            this.sequence = sequence;
+            this.source = source;
+            this.tickLength = tickLength;
+            this.chart = chart;
+            this.tempoMap = tempoMap;
+            this.meterMap = meterMap;
+            this.displaced = displaced;
+            this.dropped = dropped;
+        }
+    }
+
+    // 편집기 / 일괄 변환이 같이 쓰는 행 간격
+    static final int DEFAULT_TICKS_PER_ROW = 10;
+
+    // [추가] 한 박(4분음표) 이상 누른 노트만 롱노트로, 더 짧으면 치는 노트
+    static long minHoldTicks(int resolution) { return resolution; }
+
+    private final LaneAllocator.Policy lanePolicy;
+    private int displaced, dropped;
+
+    MidiChartReader() { this(LaneAllocator.NEAREST_FREE); }
+
+    MidiChartReader(LaneAllocator.Policy lanePolicy) { this.lanePolicy = lanePolicy; }
+
+    int getDisplaced() { return displaced; }
+    int getDropped() { return dropped; }
+
+    // pitch -> 원래 레인 (기존 loadMidiFile 과 동일). 겹치면 LaneAllocator 가 옮긴다
+    static int laneOf(int pitch) { return (pitch % 12) % NoteChart.COLUMN_COUNT; }
+
+    // 취소되면 null
+    Result read(File file, Listener listener) throws Exception {
+        Sequence seq = MidiSystem.getSequence(file);
+        if (listener.isCancelled()) return null;
+        NoteChart chart = buildChart(seq, listener);
+        return chart == null ? null : new Result(seq, chart, TempoMap.fromSequence(seq), MeterMap.fromSequence(seq), displaced, dropped);
+    }
+
+    // [추가] 훑어 둔 파일에서 고른 (트랙, 채널) 의 노트만 (channelMasks[트랙] = 채널 비트). 나머지 트랙은 해석하지 않는다
+    Result read(MidiFileScanner scanner, int[] channelMasks, Listener listener) throws InvalidMidiDataException {
+        LaneAllocator lanes = new LaneAllocator(lanePolicy);
+        if (!scanner.readNotes(channelMasks, new NotePairing(lanes, minHoldTicks(scanner.getResolution())), listener)) return null;
+        NoteChart chart = lanes.build();
+        displaced = lanes.getDisplaced();
+        dropped = lanes.getDropped();
+        listener.progress(100);
+        return new Result(scanner, chart, displaced, dropped);
+    }
+
+    NoteChart buildChart(Sequence seq, Listener listener) {
+        Track[] tracks = seq.getTracks();
+        long total = 0, done = 0;
+        for (Track track : tracks) total += track.size();
+
+        LaneAllocator lanes = new LaneAllocator(lanePolicy);
+        // [추가] NOTE_OFF 와 짝을 지어 롱노트 길이를 정한다. SMPTE 면 TempoMap 처럼 1초를 한 박으로
+        NotePairing pairing = new NotePairing(lanes, minHoldTicks(TempoMap.beatTicks(seq)));
+        int lastPercent = -1;
+        for (Track track : tracks) {
+            for (int i = 0; i < track.size(); i++) {
+                MidiEvent event = track.get(i);
+                MidiMessage msg = event.getMessage();
+                if (msg instanceof ShortMessage sm) {
+                    // [수정] 행 단위로 내리지 않고 원래 tick 그대로 (격자 맞추기는 SnapGrid 로 따로)
+                    if (sm.getCommand() == ShortMessage.NOTE_ON && sm.getData2() > 0) pairing.noteOn(event.getTick(), sm.getChannel(), sm.getData1(), sm.getData2());
+                    else if (sm.getCommand() == ShortMessage.NOTE_ON || sm.getCommand() == ShortMessage.NOTE_OFF) pairing.noteOff(event.getTick(), sm.getChannel(), sm.getData1());
+                }
+                // 4096 이벤트마다 진행률/취소 확인
+                if ((++done & 0xFFF) == 0) {
+                    if (listener.isCancelled()) return null;
+                    int percent = (int) (done * 100 / total);
+                    if (percent != lastPercent) listener.progress(lastPercent = percent);
+                }
+            }
+            pairing.endTrack();
+        }
+        NoteChart chart = lanes.build();
+        displaced = lanes.getDisplaced();
+        dropped = lanes.getDropped();
+        listener.progress(100);
+        return chart;
+    }
+}
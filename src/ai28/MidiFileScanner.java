@@ -0,0 +1,280 @@
+package ai28;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.sound.midi.*;
+
+// --- 표준 MIDI 파일(SMF) 을 바이트 그대로 훑기: 트랙 / 채널 골라 가져오기용 ---
+// MidiSystem.getSequence 는 모든 트랙의 모든 이벤트를 MidiEvent 객체로 만든다 (큰 관현악 파일이면 수백만 개).
+// 여기서는 파일을 byte[] 하나로 읽어 MTrk 덩어리의 위치만 잡아 두고
+//  - 만들 때: 트랙마다 바이트를 한 번 훑어 채널별 노트 수 / 트랙 이름 / 템포 / 박자 / 길이만 센다 (이벤트 객체 없음)
+//  - readNotes: 고른 (트랙, 채널) 의 노트만 NotePairing 으로 넘긴다 (NOTE_OFF 로 롱노트 길이). 고르지 않은 트랙은 건너뛴다
+//  - toSequence: 재생에 필요해질 때 처음으로 전체를 Sequence 로 만든다
+// 만든 뒤에는 바뀌지 않으므로 어느 스레드에서나 부를 수 있다.
+// SMPTE 분해능 파일은 다루지 않는다 (open 이 null -> MidiChartReader.read(File) 로).
+final class MidiFileScanner {
+    static final int CHANNELS = 16;
+    // GM 타악기 채널 (10번 채널, 0 부터 세면 9)
+    static final int DRUM_CHANNEL = 9;
+
+    // 트랙 하나의 훑어보기 결과
+    static final class TrackInfo {
+        final int index;
+        String name = "";
+        // 채널별 NOTE_ON(velocity > 0) 수
+        final int[] noteCounts = new int[CHANNELS];
+        long endTick;
+        TrackInfo(int index) { this.index = index; }
+
+        // 노트가 있는 채널들의 비트 마스크
+        int channelMask() {
+            int mask = 0;
+            for (int ch = 0; ch < CHANNELS; ch++) if (noteCounts[ch] > 0) mask |= 1 << ch;
+            return mask;
+        }
+    }
+
+    // 트랙의 이벤트를 차례로 받는다. 메타 / 시스템 배타는 원본 바이트 배열(data) 의 위치와 길이로
+    private interface EventVisitor {
+        void shortMessage(long tick, int status, int data1, int data2) throws InvalidMidiDataException;
+        default void meta(long tick, int type, int offset, int length) throws InvalidMidiDataException {}
+        default void sysex(long tick, int status, int offset, int length) throws InvalidMidiDataException {}
+    }
+
+    private final byte[] data;
+    private final int resolution;
+    private final int[] trackStart, trackEnd;
+    private final TrackInfo[] tracks;
+    private final TempoMap tempoMap;
+    private final MeterMap meterMap;
+    private final long tickLength;
+
+    // "MThd" 로 시작하는 PPQ 파일이면 읽어서 훑고, 아니면 null
+    static MidiFileScanner open(Path path) throws IOException, InvalidMidiDataException {
+        byte[] data = Files.readAllBytes(path);
+        if (data.length < 14 || data[0] != 'M' || data[1] != 'T' || data[2] != 'h' || data[3] != 'd') return null;
+        int headerLength = readInt(data, 4);
+        int trackCount = readShort(data, 10), division = readShort(data, 12);
+        if (headerLength < 6 || (division & 0x8000) != 0 || division == 0) return null;
+        return new MidiFileScanner(data, 8 + headerLength, trackCount, division);
+    }
+
+    private MidiFileScanner(byte[] data, int pos, int trackCount, int resolution) throws InvalidMidiDataException {
+        this.data = data;
+        this.resolution = resolution;
+        // MTrk 덩어리 위치 (모르는 덩어리는 건너뛴다)
+        int[] start = new int[trackCount], end = new int[trackCount];
+        int n = 0;
+        while (n < trackCount && pos + 8 <= data.length) {
+            int length = readInt(data, pos + 4);
+            if (length < 0 || pos + 8 + (long) length > data.length) throw new InvalidMidiDataException("MIDI 트랙 길이가 파일을 넘습니다: " + n);
+            if (data[pos] == 'M' && data[pos + 1] == 'T' && data[pos + 2] == 'r' && data[pos + 3] == 'k') {
+                start[n] = pos + 8;
+                end[n++] = pos + 8 + length;
+            }
+            pos += 8 + length;
+        }
+        trackStart = Arrays.copyOf(start, n);
+        trackEnd = Arrays.copyOf(end, n);
+
+        // 훑어보기: 채널별 노트 수 / 이름 / 템포 / 박자 / 끝 tick
+        tracks = new TrackInfo[n];
+        Prescan prescan = new Prescan();
+        long longest = 0;
+        for (int t = 0; t < n; t++) {
+            prescan.info = tracks[t] = new TrackInfo(t);
+            prescan.info.endTick = walk(t, prescan, MidiChartReader.SILENT, 0, 1);
+            longest = Math.max(longest, prescan.info.endTick);
+        }
+        tickLength = longest;
+        tempoMap = TempoMap.build(resolution, prescan.tempoTicks, prescan.mpqs, prescan.tempoCount);
+        meterMap = MeterMap.build(resolution, prescan.meterTicks, prescan.nums, prescan.dens, prescan.meterCount);
+    }
+
+    // 훑어보기 방문자: 지금 트랙(info) 의 노트 수 / 이름과 모든 트랙의 템포 / 박자 이벤트를 모은다
+    private final class Prescan implements EventVisitor {
+        TrackInfo info;
+        long[] tempoTicks = new long[16], meterTicks = new long[8];
+        int[] mpqs = new int[16], nums = new int[8], dens = new int[8];
+        int tempoCount, meterCount;
+
+        @Override public void shortMessage(long tick, int status, int data1, int data2) {
+            if ((status & 0xF0) == ShortMessage.NOTE_ON && data2 > 0) info.noteCounts[status & 0x0F]++;
+        }
+
+        @Override public void meta(long tick, int type, int offset, int length) {
+            if (type == 0x03 && info.name.isEmpty()) {
+                info.name = text(offset, length);
+            } else if (type == 0x51 && length >= 3) {
+                if (tempoCount == tempoTicks.length) {
+                    tempoTicks = Arrays.copyOf(tempoTicks, tempoCount * 2);
+                    mpqs = Arrays.copyOf(mpqs, tempoCount * 2);
+                }
+                tempoTicks[tempoCount] = tick;
+                mpqs[tempoCount++] = (data[offset] & 0xFF) << 16 | (data[offset + 1] & 0xFF) << 8 | (data[offset + 2] & 0xFF);
+            } else if (type == 0x58 && length >= 2 && data[offset] > 0 && data[offset + 1] >= 0 && data[offset + 1] <= 6) {
+                if (meterCount == meterTicks.length) {
+                    meterTicks = Arrays.copyOf(meterTicks, meterCount * 2);
+                    nums = Arrays.copyOf(nums, meterCount * 2);
+                    dens = Arrays.copyOf(dens, meterCount * 2);
+                }
+                meterTicks[meterCount] = tick;
+                nums[meterCount] = data[offset];
+                dens[meterCount++] = data[offset + 1];
+            }
+        }
+    }
+
+    int getResolution() { return resolution; }
+    int trackCount() { return tracks.length; }
+    TrackInfo track(int index) { return tracks[index]; }
+    TempoMap getTempoMap() { return tempoMap; }
+    MeterMap getMeterMap() { return meterMap; }
+    // Sequence.getTickLength 와 같다 (가장 긴 트랙의 끝)
+    long getTickLength() { return tickLength; }
+
+    // 노트가 있는 (트랙, 채널) 쌍의 수
+    int noteSourceCount() {
+        int count = 0;
+        for (TrackInfo info : tracks) count += Integer.bitCount(info.channelMask());
+        return count;
+    }
+
+    // 기본 선택: 노트가 있는 채널 전부, 다른 채널에도 노트가 있으면 타악기 채널은 뺀다
+    int[] defaultSelection() {
+        int[] masks = new int[tracks.length];
+        int all = 0;
+        for (int t = 0; t < tracks.length; t++) all |= masks[t] = tracks[t].channelMask();
+        if ((all & ~(1 << DRUM_CHANNEL)) != 0) for (int t = 0; t < masks.length; t++) masks[t] &= ~(1 << DRUM_CHANNEL);
+        return masks;
+    }
+
+    // --- 고른 (트랙, 채널) 의 노트만: channelMasks[트랙] 의 비트가 켜진 채널. 마스크가 0 인 트랙은 읽지 않는다 ---
+    // 취소되면 false
+    boolean readNotes(int[] channelMasks, NotePairing pairing, MidiChartReader.Listener listener) throws InvalidMidiDataException {
+        long total = 0, done = 0;
+        for (int t = 0; t < tracks.length; t++) if (channelMasks[t] != 0) total += trackEnd[t] - trackStart[t];
+        for (int t = 0; t < tracks.length; t++) {
+            int mask = channelMasks[t];
+            if (mask == 0) continue;
+            walk(t, (tick, status, data1, data2) -> {
+                int command = status & 0xF0, channel = status & 0x0F;
+                if ((command != ShortMessage.NOTE_ON && command != ShortMessage.NOTE_OFF) || (mask >>> channel & 1) == 0) return;
+                if (command == ShortMessage.NOTE_ON && data2 > 0) pairing.noteOn(tick, channel, data1, data2);
+                else pairing.noteOff(tick, channel, data1);
+            }, listener, done, Math.max(1, total));
+            pairing.endTrack();
+            if (listener.isCancelled()) return false;
+            done += trackEnd[t] - trackStart[t];
+        }
+        return true;
+    }
+
+    // --- 재생용: 모든 트랙을 MidiEvent 로 (MidiSystem.getSequence 와 같은 결과) ---
+    Sequence toSequence() throws InvalidMidiDataException {
+        Sequence seq = new Sequence(Sequence.PPQ, resolution);
+        for (int t = 0; t < tracks.length; t++) {
+            Track track = seq.createTrack();
+            walk(t, new EventVisitor() {
+                @Override public void shortMessage(long tick, int status, int data1, int data2) throws InvalidMidiDataException {
+                    track.add(new MidiEvent(new ShortMessage(status, data1, data2), tick));
+                }
+                @Override public void meta(long tick, int type, int offset, int length) throws InvalidMidiDataException {
+                    if (type < 128) track.add(new MidiEvent(new MetaMessage(type, Arrays.copyOfRange(data, offset, offset + length), length), tick));
+                }
+                @Override public void sysex(long tick, int status, int offset, int length) throws InvalidMidiDataException {
+                    track.add(new MidiEvent(new SysexMessage(status, Arrays.copyOfRange(data, offset, offset + length), length), tick));
+                }
+            }, MidiChartReader.SILENT, 0, 1);
+        }
+        return seq;
+    }
+
+    // 트랙 t 를 처음부터 끝(End of Track) 까지 훑고 마지막 tick 을 돌려준다.
+    // 4096 이벤트마다 취소를 확인하고 진행률 (doneBytes + 읽은 바이트) / totalBytes 를 알린다
+    private long walk(int t, EventVisitor visitor, MidiChartReader.Listener listener, long doneBytes, long totalBytes) throws InvalidMidiDataException {
+        byte[] d = data;
+        int start = trackStart[t], end = trackEnd[t];
+        int[] pos = {start};
+        long tick = 0;
+        int running = 0, events = 0, lastPercent = -1;
+        while (pos[0] < end) {
+            tick += readVarLength(pos, end, t);
+            if (pos[0] >= end) throw truncated(t);
+            int status = d[pos[0]] & 0xFF;
+            if (status >= 0x80) pos[0]++;
+            else if (running != 0) status = running;
+            else throw new InvalidMidiDataException("MIDI 트랙 " + t + ": 상태 바이트 없음 (" + pos[0] + ")");
+
+            if (status < 0xF0) {
+                // 채널 메시지 (running status 유지): 프로그램 / 채널 압력만 데이터 1바이트
+                running = status;
+                int length = (status & 0xE0) == 0xC0 ? 1 : 2;
+                if (pos[0] + length > end) throw truncated(t);
+                int data1 = d[pos[0]] & 0x7F, data2 = length == 2 ? d[pos[0] + 1] & 0x7F : 0;
+                pos[0] += length;
+                visitor.shortMessage(tick, status, data1, data2);
+            } else if (status == 0xFF) {
+                if (pos[0] >= end) throw truncated(t);
+                int type = d[pos[0]++] & 0xFF;
+                int length = readVarLength(pos, end, t);
+                if (pos[0] + length > end) throw truncated(t);
+                visitor.meta(tick, type, pos[0], length);
+                pos[0] += length;
+                if (type == 0x2F) break;
+            } else if (status == 0xF0 || status == 0xF7) {
+                int length = readVarLength(pos, end, t);
+                if (pos[0] + length > end) throw truncated(t);
+                visitor.sysex(tick, status, pos[0], length);
+                pos[0] += length;
+            } else {
+                throw new InvalidMidiDataException("MIDI 트랙 " + t + ": 잘못된 상태 바이트 " + Integer.toHexString(status));
+            }
+            if ((++events & 0xFFF) == 0) {
+                if (listener.isCancelled()) break;
+                int percent = (int) ((doneBytes + pos[0] - start) * 100 / totalBytes);
+                if (percent != lastPercent) listener.progress(lastPercent = percent);
+            }
+        }
+        return tick;
+    }
+
+    // 가변 길이 수 (최대 4바이트)
+    private int readVarLength(int[] pos, int end, int t) throws InvalidMidiDataException {
+        int value = 0;
+        for (int k = 0; k < 4; k++) {
+            if (pos[0] >= end) throw truncated(t);
+            int b = data[pos[0]++] & 0xFF;
+            value = value << 7 | (b & 0x7F);
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new InvalidMidiDataException("MIDI 트랙 " + t + ": 가변 길이 수가 너무 깁니다");
+    }
+
+    private static InvalidMidiDataException truncated(int t) {
+        return new InvalidMidiDataException("MIDI 트랙 " + t + " 이 중간에 끊겼습니다");
+    }
+
+    // 트랙 이름: UTF-8 로 읽히면 UTF-8, 아니면 바이트 그대로 (ISO-8859-1)
+    private String text(int offset, int length) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(data, offset, length)).toString().trim();
+        } catch (CharacterCodingException e) {
+            return new String(data, offset, length, StandardCharsets.ISO_8859_1).trim();
+        }
+    }
+
+    private static int readInt(byte[] d, int pos) {
+        return (d[pos] & 0xFF) << 24 | (d[pos + 1] & 0xFF) << 16 | (d[pos + 2] & 0xFF) << 8 | (d[pos + 3] & 0xFF);
+    }
+
+    private static int readShort(byte[] d, int pos) { return (d[pos] & 0xFF) << 8 | (d[pos + 1] & 0xFF); }
+}
@@ -0,0 +1,924 @@
+package ai28;
+
+import java.awt.*;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.Transferable;
+import java.awt.event.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.sound.midi.*;
+import javax.swing.*;
+import javax.swing.table.TableColumn;
+
+public class MidiRhythmEditor extends JFrame {
+    private JTable table;
+    private ChartTableModel tableModel;
+    private JScrollPane scrollPane;
+    private JLabel lblStatus; 
+    private NoteHighwayView highwayView;
+    // [추가] 세로 배율 (하이웨이 뷰 / 눈금자 / 재생 스크롤 공유)
+    private TickScale tickScale;
+    private FrameScheduler zoomFrames;
+    // 배율이 바뀌는 동안 화면의 anchorY 에 anchorTick 이 머문다
+    private double zoomAnchorTick;
+    private int zoomAnchorY;
+    // [추가] 스냅 격자 (노트는 정확한 tick 으로 저장, 격자는 표시와 다시 맞추기에만)
+    private SnapGrid snapGrid = new SnapGrid(480, 16, false);
+
+    private final int TICKS_PER_ROW = MidiChartReader.DEFAULT_TICKS_PER_ROW;
+    private final int COLUMN_COUNT = 8;
+    private final int JUDGMENT_LINE_OFFSET = 30;
+    private static final String CHART_FILE = "output" + ChartFile.EXTENSION;
+    private static final String DEFAULT_MIDI = "input.mid";
+
+    private Sequencer sequencer;
+    private Receiver midiReceiver; 
+    private FrameScheduler frameScheduler;
+    private PlaybackClock playbackClock;
+    // 재생/스크롤/타격음이 모두 이 템포 맵으로 tick <-> 시간을 변환한다
+    private volatile TempoMap tempoMap = TempoMap.constant(480, TempoMap.DEFAULT_MPQ);
+    private volatile MeterMap meterMap = MeterMap.constant(480);
+    private Synthesizer synthesizer;
+    private HitSoundScheduler hitSounds;
+    private NoteOffScheduler noteOffs;
+
+    private final EditHistory history = new EditHistory();
+    // [수정] 훑어보기(TrackScanWorker) 또는 적재(MidiLoadWorker)
+    private SwingWorker<?, ?> loadWorker;
+    // [추가] 트랙을 골라 가져온 MIDI: 재생용 Sequence 는 처음 재생할 때 만든다
+    private MidiFileScanner playbackSource;
+    private SwingWorker<Sequence, Void> playbackWorker;
+    private final ChartExporter exporter = new ChartExporter();
+    private ExportWorker exportWorker;
+    private final EditJournal journal = new EditJournal(Path.of("."), TICKS_PER_ROW);
+    // [추가] 여러 칸 선택 (테이블 사각형 / 눈금자 시간 구간) 과 복사해 둔 노트
+    private final ChartSelection selection = new ChartSelection(TICKS_PER_ROW);
+    private ChartSelection.Clip clipboard;
+    // 편집 뒤 선택을 바꾸면서 테이블 선택을 지울 때, 그 이벤트가 선택을 다시 덮어쓰지 않도록
+    private boolean syncingSelection;
+    // [추가] 노트 찾아가기: 마지막으로 찾아간 노트의 tick / 찾는 음 높이
+    private long navTick = -1;
+    private int findPitch = -1;
+    // [추가] 레인별 / 시간별 노트 수 (편집마다 ChartEdit 만큼만 고친다) 와 그 패널
+    private ChartStats stats = ChartStats.empty(tempoMap);
+    private ChartStatsPanel statsPanel;
+
+    public MidiRhythmEditor() {
+        setTitle("Rhythm Editor Pro - Note Name Mapping (C3, D4...)");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setSize(500, 800);
+
+        initMidiEngine();
+        initializeComponents();
+        initializeMenu();
+        // [추가] 지난 세션(스냅샷 + 편집 저널)이 있으면 복원할지 묻는다. 아니면 input.mid 를 새 세션으로
+        if (journal.hasSession() && askRestoreSession()) restoreSession(); else loadMidiFile(DEFAULT_MIDI);
+        addWindowListener(new WindowAdapter() {
+            @Override public void windowClosing(WindowEvent e) { journal.close(); }
+        });
+
+        setLocationRelativeTo(null);
+        setVisible(true);
+        
+        this.requestFocusInWindow();
+        SwingUtilities.invokeLater(() -> scrollToTick(0));
+    }
+
+    private void initMidiEngine() {
+        try {
+            sequencer = MidiSystem.getSequencer();
+            sequencer.open();
+            // [수정] 타격음은 타임스탬프를 지원하는 신디사이저로 직접 보낸다
+            // (Sequencer 의 리시버는 녹음 중이 아니면 받은 메시지를 소리 내지 않는다)
+            synthesizer = MidiSystem.getSynthesizer();
+            synthesizer.open();
+            midiReceiver = synthesizer.getReceiver(); 
+            noteOffs = new NoteOffScheduler(midiReceiver);
+            hitSounds = new HitSoundScheduler(sequencer, synthesizer, midiReceiver, () -> tableModel.getChart(), () -> tempoMap);
+        } catch (Exception e) { e.printStackTrace(); }
+    }
+
+    private void initializeComponents() {
+        tableModel = new ChartTableModel(TICKS_PER_ROW, JUDGMENT_LINE_OFFSET);
+
+        table = new JTable(tableModel);
+        table.setRowHeight(26);
+        table.setBackground(Color.BLACK);
+        table.setGridColor(new Color(45, 45, 45));
+        // [수정] 사각형 선택 (행 구간 x 레인 구간)
+        table.setSelectionMode(ListSelectionModel.SINGLE_INTERVAL_SELECTION);
+        table.setCellSelectionEnabled(true);
+        table.getSelectionModel().addListSelectionListener(e -> selectFromTable());
+        table.getColumnModel().getSelectionModel().addListSelectionListener(e -> selectFromTable());
+        // Ctrl+C / X / V 는 TransferHandler 대신 창 단축키(선택 복사/잘라내기/붙여넣기)로
+        for (int key : new int[]{KeyEvent.VK_C, KeyEvent.VK_X, KeyEvent.VK_V}) {
+            table.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(KeyStroke.getKeyStroke(key, InputEvent.CTRL_DOWN_MASK), "none");
+        }
+        // Ctrl(+Shift)+위/아래 도 노트/화음 찾아가기로
+        for (int key : new int[]{KeyEvent.VK_UP, KeyEvent.VK_DOWN}) {
+            table.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(KeyStroke.getKeyStroke(key, InputEvent.CTRL_DOWN_MASK), "none");
+            table.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(KeyStroke.getKeyStroke(key, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "none");
+        }
+        
+        // 클릭 시 소리 재생 및 정보 표시
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int row = table.rowAtPoint(e.getPoint());
+                int col = table.columnAtPoint(e.getPoint());
+                if (row != -1 && col != -1) {
+                    Object val = table.getValueAt(row, col);
+                    if (val instanceof NoteData nd) previewNote(nd);
+                }
+            }
+        });
+
+        table.setDragEnabled(true);
+        table.setDropMode(DropMode.USE_SELECTION);
+        table.setTransferHandler(new NoteTransferHandler());
+
+        setupColumns();
+
+        // [추가] 셀 렌더러 대신 직접 그리는 하이웨이 뷰 (F6 으로 전환)
+        tickScale = new TickScale(table, tableModel);
+        highwayView = new NoteHighwayView(table, tableModel, tickScale);
+        highwayView.setGrid(snapGrid);
+        highwayView.setSelection(selection);
+        highwayView.setListener(new NoteHighwayView.Listener() {
+            @Override public void notePressed(int row, int lane, NoteData note) { previewNote(note); }
+            @Override public void noteMoved(int row, int fromLane, int toLane) { moveNote(row, fromLane, toLane); }
+        });
+
+        scrollPane = new JScrollPane(table);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(30);
+        
+        lblStatus = new JLabel(" [F5]: 전체 재생 | [노트 클릭]: 계이름 확인");
+        lblStatus.setOpaque(true);
+        lblStatus.setBackground(new Color(25, 25, 25));
+        lblStatus.setForeground(new Color(0, 255, 150));
+        lblStatus.setFont(new Font("맑은 고딕", Font.BOLD, 12));
+        lblStatus.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+
+        // [추가] 상태 줄 위에 통계 패널 (판정선 시각의 NPS 는 스크롤할 때마다 다시 그린다)
+        statsPanel = new ChartStatsPanel(() -> stats, () -> tempoMap.tickToMicros(calculateTickFromView()));
+        scrollPane.getViewport().addChangeListener(e -> statsPanel.repaint());
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(statsPanel, BorderLayout.CENTER);
+        south.add(lblStatus, BorderLayout.SOUTH);
+
+        // [추가] 오른쪽에 곡 전체 미니맵 (누르거나 끌어서 이동)
+        ChartMinimap minimap = new ChartMinimap(tableModel, tickScale, scrollPane.getViewport());
+        minimap.setListener(this::seekTo);
+
+        add(scrollPane, BorderLayout.CENTER);
+        add(minimap, BorderLayout.EAST);
+        add(south, BorderLayout.SOUTH);
+        // [수정] JList 행 번호 대신 마디/박/시간 눈금자
+        TimelineRuler ruler = new TimelineRuler(table, tableModel, tickScale, () -> tempoMap, () -> meterMap);
+        ruler.setListener(this::selectRange);
+        scrollPane.setRowHeaderView(ruler);
+        // 뷰/눈금자가 먼저 크기를 바꾼 뒤 기준 tick 이 제자리에 오도록 스크롤
+        tickScale.addListener(this::scaleChanged);
+        // Ctrl+휠: 마우스 위치 기준 확대/축소. 나머지는 원래대로 스크롤 패널로
+        highwayView.addMouseWheelListener(e -> {
+            if (e.isControlDown()) zoom(Math.pow(1.15, -e.getPreciseWheelRotation()), e.getY() - scrollPane.getViewport().getViewPosition().y);
+            else scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(highwayView, e, scrollPane));
+        });
+    }
+
+    private void initializeMenu() {
+        JMenuBar menuBar = new JMenuBar();
+        JButton btnSave = new JButton("저장 (Ctrl+S)");
+        btnSave.setFocusable(false);
+        btnSave.addActionListener(e -> exportChart("output.txt", ChartExporter.Format.LINES));
+        menuBar.add(btnSave);
+        // [추가] 바이너리 차트 저장/열기
+        JButton btnSaveChart = new JButton("차트 저장 (Ctrl+Shift+S)");
+        btnSaveChart.setFocusable(false);
+        btnSaveChart.addActionListener(e -> saveChartFile());
+        menuBar.add(btnSaveChart);
+        JButton btnOpen = new JButton("열기 (Ctrl+O)");
+        btnOpen.setFocusable(false);
+        btnOpen.addActionListener(e -> openFile());
+        menuBar.add(btnOpen);
+        // [추가] 편집 기록을 버리고 처음부터
+        JButton btnNewSession = new JButton("새 세션 (Ctrl+N)");
+        btnNewSession.setFocusable(false);
+        btnNewSession.addActionListener(e -> newSession());
+        menuBar.add(btnNewSession);
+        setJMenuBar(menuBar);
+
+        InputMap im = getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        ActionMap am = getRootPane().getActionMap();
+
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_F5, 0), "togglePlay");
+        am.put("togglePlay", new AbstractAction() {
+            @Override public void actionPerformed(ActionEvent e) { togglePlayback(); }
+        });
+
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_S, InputEvent.CTRL_DOWN_MASK), "save");
+        am.put("save", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { exportChart("output.txt", ChartExporter.Format.LINES); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_E, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "exportJson");
+        am.put("exportJson", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { exportChart("output.json", ChartExporter.Format.JSON_ARRAY); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_S, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "saveChart");
+        am.put("saveChart", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { saveChartFile(); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_O, InputEvent.CTRL_DOWN_MASK), "open");
+        am.put("open", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { openFile(); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_N, InputEvent.CTRL_DOWN_MASK), "newSession");
+        am.put("newSession", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { newSession(); } });
+
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+        am.put("undo", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { undo(); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo");
+        am.put("redo", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { redo(); } });
+        
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DELETE, 0), "delete");
+        am.put("delete", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { deleteSelected(); } });
+
+        // [추가] 1 / 2: 축소 / 확대 (하이웨이 뷰, 행 높이는 그대로)
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_1, 0), "zoomOut");
+        am.put("zoomOut", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { zoom(1 / ZOOM_STEP, -1); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_2, 0), "zoomIn");
+        am.put("zoomIn", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { zoom(ZOOM_STEP, -1); } });
+
+        // [추가] [ / ] : 격자 성기게 / 촘촘하게, T: 셋잇단, Ctrl+Q: 격자에 다시 맞추기 (선택이 있으면 선택한 칸만, 없으면 전체)
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_OPEN_BRACKET, 0), "gridCoarser");
+        am.put("gridCoarser", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { setSnapGrid(snapGrid.finer(-1)); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_CLOSE_BRACKET, 0), "gridFiner");
+        am.put("gridFiner", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { setSnapGrid(snapGrid.finer(1)); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_T, 0), "gridTriplet");
+        am.put("gridTriplet", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { setSnapGrid(snapGrid.withTriplet(!snapGrid.isTriplet())); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_Q, InputEvent.CTRL_DOWN_MASK), "requantize");
+        am.put("requantize", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { requantize(); } });
+
+        // [추가] 선택 편집: 복사 / 잘라내기 / 붙여넣기, Alt+위/아래: 격자 한 칸 이동, M: 레인 반전, = / -: 반음 (Shift: 옥타브)
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_C, InputEvent.CTRL_DOWN_MASK), "copy");
+        am.put("copy", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { copySelection(); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_X, InputEvent.CTRL_DOWN_MASK), "cut");
+        am.put("cut", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { copySelection(); deleteSelected(); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_V, InputEvent.CTRL_DOWN_MASK), "paste");
+        am.put("paste", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { pasteClipboard(); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, InputEvent.ALT_DOWN_MASK), "shiftLater");
+        am.put("shiftLater", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { shiftSelection(1); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, InputEvent.ALT_DOWN_MASK), "shiftEarlier");
+        am.put("shiftEarlier", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { shiftSelection(-1); } });
+        // [추가] Alt+Shift+위/아래: 롱노트 길이를 격자 한 칸만큼 늘리기/줄이기 (0 이 되면 치는 노트)
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, InputEvent.ALT_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "holdLonger");
+        am.put("holdLonger", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { resizeSelection(1); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, InputEvent.ALT_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "holdShorter");
+        am.put("holdShorter", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { resizeSelection(-1); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_M, 0), "mirror");
+        am.put("mirror", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { editSelection(selection.mirror(tableModel.getChart()), true); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_EQUALS, 0), "transposeUp");
+        am.put("transposeUp", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { editSelection(selection.transpose(tableModel.getChart(), 1), false); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_MINUS, 0), "transposeDown");
+        am.put("transposeDown", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { editSelection(selection.transpose(tableModel.getChart(), -1), false); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_EQUALS, InputEvent.SHIFT_DOWN_MASK), "octaveUp");
+        am.put("octaveUp", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { editSelection(selection.transpose(tableModel.getChart(), 12), false); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_MINUS, InputEvent.SHIFT_DOWN_MASK), "octaveDown");
+        am.put("octaveDown", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { editSelection(selection.transpose(tableModel.getChart(), -12), false); } });
+
+        // [추가] 찾아가기: Ctrl+위/아래 다음/이전 노트 (레인을 골랐으면 그 레인), Ctrl+Shift+위/아래 화음,
+        // Ctrl+F 계이름/pitch 찾기, F3 / Shift+F3 같은 음 다음/이전
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, InputEvent.CTRL_DOWN_MASK), "nextNote");
+        am.put("nextNote", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { jumpNote(1); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, InputEvent.CTRL_DOWN_MASK), "previousNote");
+        am.put("previousNote", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { jumpNote(-1); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "nextChord");
+        am.put("nextChord", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { jumpChord(1); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "previousChord");
+        am.put("previousChord", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { jumpChord(-1); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_F, InputEvent.CTRL_DOWN_MASK), "findPitch");
+        am.put("findPitch", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { findPitch(); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "findNext");
+        am.put("findNext", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { jumpPitch(1); } });
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, InputEvent.SHIFT_DOWN_MASK), "findPrevious");
+        am.put("findPrevious", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { jumpPitch(-1); } });
+
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_F6, 0), "toggleView");
+        am.put("toggleView", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { toggleView(); } });
+
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "cancelLoad");
+        am.put("cancelLoad", new AbstractAction() { @Override public void actionPerformed(ActionEvent e) { cancelLoad(); } });
+    }
+
+    // 테이블 뷰 <-> 하이웨이 뷰 (배율 1 에서 좌표계가 같으므로 스크롤 위치를 그대로 유지)
+    private void toggleView() {
+        boolean toHighway = scrollPane.getViewport().getView() == table;
+        // 테이블은 행 높이 그대로만 그릴 수 있으므로 배율을 1 로 되돌린 뒤 전환
+        if (!toHighway) {
+            if (zoomFrames != null) zoomFrames.stop();
+            setZoomAnchor(-1);
+            tickScale.setZoom(1);
+        }
+        Point pos = scrollPane.getViewport().getViewPosition();
+        scrollPane.setViewportView(toHighway ? highwayView : table);
+        if (toHighway) scrollPane.setColumnHeaderView(table.getTableHeader());
+        scrollPane.getViewport().setViewPosition(pos);
+        (toHighway ? highwayView : table).requestFocusInWindow();
+        lblStatus.setText(toHighway ? " [F6] 하이웨이 뷰" : " [F6] 테이블 뷰");
+    }
+
+    // --- [추가] 확대/축소: 행 높이를 바꾸지 않고 TickScale 의 배율만 바꾼다 ---
+    private static final double ZOOM_STEP = 1.25;
+
+    // anchorY: 뷰포트 안의 기준 y (-1 이면 판정선)
+    private void zoom(double factor, int anchorY) {
+        if (scrollPane.getViewport().getView() == table) toggleView();
+        setZoomAnchor(anchorY);
+        double target = tickScale.getTargetZoom() * factor;
+        target = Math.max(tickScale.minZoom(scrollPane.getViewport().getHeight()), Math.min(tickScale.maxZoom(), target));
+        tickScale.animateTo(target);
+        if (zoomFrames == null) zoomFrames = new FrameScheduler(FrameScheduler.displayRefreshRate(), this::zoomFrame);
+        zoomFrames.start();
+        lblStatus.setText(String.format(" 배율 %.2fx", target));
+    }
+
+    private void setZoomAnchor(int anchorY) {
+        zoomAnchorY = anchorY >= 0 ? anchorY : judgmentLineViewportY();
+        zoomAnchorTick = tickScale.yToTick(scrollPane.getViewport().getViewPosition().y + zoomAnchorY);
+    }
+
+    private void zoomFrame(long frameNanos) {
+        if (!tickScale.frame(frameNanos)) zoomFrames.stop();
+    }
+
+    // 배율이 바뀌면 뷰 크기를 바로 다시 잡고 기준 tick 을 같은 화면 위치에 둔다 (재생 중이면 재생 스크롤이 이어 받는다)
+    private void scaleChanged() {
+        highwayView.revalidate();
+        scrollPane.validate();
+        int y = (int) Math.round(tickScale.tickToY(zoomAnchorTick)) - zoomAnchorY;
+        scrollPane.getViewport().setViewPosition(new Point(scrollPane.getViewport().getViewPosition().x, Math.max(0, y)));
+    }
+
+    // 뷰포트 위쪽에서 판정선까지의 거리
+    private int judgmentLineViewportY() {
+        return scrollPane.getViewport().getHeight() - (JUDGMENT_LINE_OFFSET - 1) * table.getRowHeight();
+    }
+
+    private void setSnapGrid(SnapGrid grid) {
+        snapGrid = grid;
+        highwayView.setGrid(grid);
+        lblStatus.setText(" 격자 " + grid + " ([ ] 간격, T 셋잇단, Ctrl+Q 맞추기)");
+    }
+
+    // 선택한 칸의 노트 (선택이 없으면 전체) 를 지금 격자에 맞춘다. 실행 취소 한 단계
+    private void requantize() {
+        NoteChart chart = tableModel.getChart();
+        boolean selected = !selection.isEmpty();
+        ChartEdit edit = selected ? snapGrid.requantize(chart, selection.selectedIndices(chart))
+                                  : snapGrid.requantize(chart, 0, NoteChart.MAX_TICK + 1);
+        String scope = selected ? "선택" : "전체";
+        if (edit.count() == 0) { lblStatus.setText(" " + scope + " 노트가 이미 격자 " + snapGrid + " 에 맞춰져 있습니다."); return; }
+        int moved = 0, placed = 0;
+        for (int i = 0; i < edit.count(); i++) {
+            if (edit.afterAt(i) == NoteChart.EMPTY) moved++; else placed++;
+        }
+        commitEdit(edit);
+        lblStatus.setText(" [격자 " + snapGrid + ", " + scope + "] " + moved + "개 노트 이동" + (moved > placed ? ", 겹쳐서 합친 노트 " + (moved - placed) + "개" : ""));
+    }
+
+    private void previewNote(NoteData nd) {
+        playNote(nd.pitch);
+        lblStatus.setText(" [선택됨] 계이름: " + nd.getNoteName() + " (Pitch: " + nd.pitch + ")");
+    }
+
+    // 같은 행 안에서 칸의 노트를 다른 레인으로 옮긴다 ([수정] 칸의 노트 전부, 대상 칸의 노트들과 맞바꿈, 각자 원래 tick 유지)
+    private void moveNote(int row, int fromLane, int toLane) {
+        long tick = tableModel.rowToTick(row);
+        if (fromLane == toLane || tableModel.noteIndex(row, fromLane) < 0) return;
+        ChartEdit edit = ChartSelection.swapLanes(tableModel.getChart(), tick, tick + TICKS_PER_ROW, fromLane, toLane);
+        // 놓을 자리에 맞바꾸지 않는 노트가 있으면 덮어쓰지 않고 그만둔다
+        int moved = 0, swapped = 0;
+        for (int i = 0; i < edit.count(); i++) {
+            if (edit.afterAt(i) == NoteChart.EMPTY) continue;
+            if (edit.beforeAt(i) != NoteChart.EMPTY) { lblStatus.setText(" [이동] 대상 칸에 다른 노트가 있어 옮기지 않았습니다."); return; }
+            if (NoteChart.laneOf(edit.keyAt(i)) == toLane) moved++; else swapped++;
+        }
+        commitEdit(edit);
+        lblStatus.setText(" [이동] " + table.getColumnName(fromLane) + " -> " + table.getColumnName(toLane) + " " + moved + "개"
+                + (swapped > 0 ? ", 맞바꾼 노트 " + swapped + "개" : "") + " (Ctrl+Z 로 되돌리기)");
+    }
+
+    private void togglePlayback() {
+        if (sequencer == null) return;
+        if (sequencer.isRunning()) {
+            sequencer.stop();
+            stopPlaybackUi();
+        } else {
+            if (playbackSource != null) { preparePlayback(); return; }
+            long currentTick = calculateTickFromView();
+            sequencer.setTickPosition(currentTick);
+            sequencer.start();
+            if (hitSounds != null) hitSounds.start(currentTick);
+            // [수정] 토글마다 Timer 를 새로 만들지 않고 하나의 프레임 스케줄러를 재사용
+            if (frameScheduler == null) {
+                playbackClock = new PlaybackClock(sequencer, () -> tempoMap);
+                frameScheduler = new FrameScheduler(FrameScheduler.displayRefreshRate(), this::syncTableSmooth);
+            }
+            playbackClock.reset();
+            frameScheduler.start();
+            lblStatus.setText(" ▶ 재생 중...");
+        }
+    }
+
+    // [추가] 골라 가져온 MIDI 는 노트로 쓰지 않은 트랙까지 여기서 처음 해석한다 (백그라운드, 끝나면 재생 시작)
+    private void preparePlayback() {
+        if (playbackWorker != null) return;
+        MidiFileScanner source = playbackSource;
+        lblStatus.setText(" 재생 준비 중... (전체 트랙 해석)");
+        playbackWorker = new SwingWorker<>() {
+            @Override protected Sequence doInBackground() throws Exception { return source.toSequence(); }
+            @Override protected void done() {
+                playbackWorker = null;
+                // 그 사이 다른 파일을 불러왔으면 버린다
+                if (playbackSource != source) return;
+                try {
+                    sequencer.setSequence(get());
+                    playbackSource = null;
+                    togglePlayback();
+                } catch (Exception e) {
+                    lblStatus.setText(" [오류] 재생 준비 실패");
+                    e.printStackTrace();
+                }
+            }
+        };
+        playbackWorker.execute();
+    }
+
+    private void stopPlaybackUi() {
+        if (frameScheduler != null) frameScheduler.stop();
+        if (hitSounds != null) hitSounds.stop();
+        lblStatus.setText(" ■ 정지됨" + (frameScheduler != null ? " (" + frameScheduler.statsText() + ")" : "")
+                + (hitSounds != null ? " " + hitSounds.statsText() : ""));
+    }
+
+    // [수정] 노트마다 Timer 를 만들지 않고 NoteOffScheduler 가 250ms 뒤에 끈다
+    private void playNote(int pitch) {
+        if (noteOffs != null) noteOffs.play(pitch, 100, 250);
+    }
+
+    // 프레임 스케줄러가 EDT 에서 매 프레임 호출
+    private void syncTableSmooth(long frameNanos) {
+        if (!sequencer.isRunning()) { stopPlaybackUi(); return; }
+        // 타격음은 HitSoundScheduler 가 따로 처리하므로 여기서는 스크롤만 한다
+        // [수정] 스크롤 속도(하이스피드)는 배율을 따른다: tick -> y 는 TickScale 이 계산
+        double smoothTick = playbackClock.tickAt(frameNanos);
+        int targetViewY = (int) Math.round(tickScale.tickToY(smoothTick)) - judgmentLineViewportY();
+        scrollPane.getViewport().setViewPosition(new Point(0, Math.max(0, targetViewY)));
+    }
+
+    private long calculateTickFromView() {
+        int judgmentLineY = scrollPane.getViewport().getViewPosition().y + judgmentLineViewportY();
+        return (long) Math.max(0, tickScale.yToTick(judgmentLineY));
+    }
+
+    // 미니맵에서 고른 tick 으로: 재생 중이면 그 자리부터 다시 재생 (스크롤은 재생 프레임이 따라간다)
+    private void seekTo(long tick) {
+        if (sequencer != null && sequencer.isRunning()) {
+            sequencer.setTickPosition(tick);
+            playbackClock.reset();
+            if (hitSounds != null) hitSounds.start(tick);
+        } else {
+            scrollToTick(tick);
+        }
+    }
+
+    private void scrollToTick(long tick) {
+        if (tickScale.tickToY(tick) < 0) return;
+        int targetY = (int) Math.round(tickScale.tickToY(tick)) - judgmentLineViewportY();
+        scrollPane.getViewport().setViewPosition(new Point(0, Math.max(0, targetY)));
+    }
+
+    // --- [수정] 빈 행까지 훑던 EDT 저장 대신: 스냅샷을 떠서 백그라운드에서 내보낸다 ---
+    private void exportChart(String fileName, ChartExporter.Format format) {
+        if (exportWorker != null && !exportWorker.isDone()) { lblStatus.setText(" 저장 중입니다..."); return; }
+        exportWorker = new ExportWorker(tableModel.getChart().snapshot(), Path.of(fileName), format);
+        exportWorker.execute();
+    }
+
+    private class ExportWorker extends SwingWorker<Integer, Void> {
+        private final NoteChart snapshot;
+        private final Path target;
+        private final ChartExporter.Format format;
+
+        ExportWorker(NoteChart snapshot, Path target, ChartExporter.Format format) {
+            this.snapshot = snapshot;
+            this.target = target;
+            this.format = format;
+        }
+
+        @Override protected Integer doInBackground() throws Exception { return exporter.export(snapshot, target, format); }
+
+        @Override protected void done() {
+            try {
+                lblStatus.setText(" [성공] " + get() + "개 노트 저장 완료 (" + target.getFileName() + ")");
+            } catch (Exception e) {
+                lblStatus.setText(" [오류] 저장 실패! (" + target.getFileName() + ")");
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // --- [추가] 바이너리 차트 저장 (output.rchart) ---
+    private void saveChartFile() {
+        try {
+            ChartFile.save(Path.of(CHART_FILE), tableModel.getChart(), tempoMap, TICKS_PER_ROW);
+            lblStatus.setText(" [성공] " + tableModel.getChart().size() + "개 노트 저장 완료 (" + CHART_FILE + ")");
+        } catch (IOException e) { lblStatus.setText(" [오류] 차트 저장 실패!"); }
+    }
+
+    private void openFile() {
+        JFileChooser chooser = new JFileChooser(new File("."));
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+                "MIDI / 차트 / 노트 목록 (*.mid, *.rchart, *.txt, *.json)", "mid", "midi", "rchart", "txt", "json", "jsonl"));
+        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) loadMidiFile(chooser.getSelectedFile().getPath());
+    }
+
+    // [수정] 선택한 칸들의 노트를 한 번에 지운다 (칸 하나만 골랐으면 그 칸)
+    private void deleteSelected() {
+        editSelection(selection.delete(tableModel.getChart()), false);
+    }
+
+    // --- [추가] 여러 칸 선택 ---
+    // 테이블 선택(행 구간 x 레인 구간)을 그대로 ChartSelection 으로 옮긴다
+    private void selectFromTable() {
+        if (syncingSelection) return;
+        int top = table.getSelectionModel().getMinSelectionIndex(), bottom = table.getSelectionModel().getMaxSelectionIndex();
+        int left = table.getColumnModel().getSelectionModel().getMinSelectionIndex();
+        int right = table.getColumnModel().getSelectionModel().getMaxSelectionIndex();
+        if (top < 0 || left < 0) selection.clear();
+        else selection.setRect(tableModel.rowToTick(bottom), tableModel.rowToTick(top) + TICKS_PER_ROW, (1 << (right + 1)) - (1 << left));
+        repaintSelection();
+    }
+
+    // 눈금자에서 끈 시간 구간: 8 레인 전체
+    private void selectRange(long fromTick, long toTick) {
+        clearTableSelection();
+        selection.setRect(fromTick, toTick, ChartSelection.ALL_LANES);
+        repaintSelection();
+    }
+
+    private void clearTableSelection() {
+        syncingSelection = true;
+        try { table.clearSelection(); } finally { syncingSelection = false; }
+    }
+
+    private void repaintSelection() {
+        table.repaint();
+        highwayView.repaint();
+    }
+
+    // --- [추가] 노트 찾아가기: NoteIndex 의 이진 탐색 한 번 (direction +1 = 뒤 시간 = 화면 위쪽) ---
+    // 기준 tick: 마지막으로 찾아간 노트가 아직 선택 행 안이면 그 tick, 아니면 선택 행(없으면 판정선 행)의 시작.
+    // 행 시작에 있는 노트도 다음 찾기에 걸리도록 그때는 한 tick 앞에서 찾는다
+    private long navigationTick(int direction) {
+        int row = table.getSelectedRow();
+        long start = row >= 0 ? tableModel.rowToTick(row) : calculateTickFromView() / TICKS_PER_ROW * TICKS_PER_ROW;
+        if (navTick >= start && navTick < start + TICKS_PER_ROW) return navTick;
+        return direction > 0 ? start - 1 : start;
+    }
+
+    private void jumpNote(int direction) {
+        NoteIndex index = tableModel.getChart().index();
+        int lane = table.getSelectedColumn();
+        long tick = navigationTick(direction);
+        long key = lane >= 0
+                ? (direction > 0 ? index.nextInLane(lane, tick) : index.previousInLane(lane, tick))
+                : (direction > 0 ? index.nextNote(tick) : index.previousNote(tick));
+        jumpTo(key, lane >= 0 ? "레인 " + table.getColumnName(lane) : "노트");
+    }
+
+    private void jumpChord(int direction) {
+        NoteChart chart = tableModel.getChart();
+        long tick = direction > 0 ? chart.index().nextChord(navigationTick(direction)) : chart.index().previousChord(navigationTick(direction));
+        jumpTo(tick < 0 ? -1 : NoteChart.key(tick, Integer.numberOfTrailingZeros(chart.laneMask(tick))), "화음");
+    }
+
+    private void findPitch() {
+        int row = table.getSelectedRow(), lane = table.getSelectedColumn();
+        Object current = row >= 0 && lane >= 0 ? tableModel.getValueAt(row, lane) : null;
+        String text = JOptionPane.showInputDialog(this, "계이름 또는 pitch (예: C4, F#3, 60)",
+                current != null ? current.toString() : findPitch >= 0 ? NoteData.of(findPitch).getNoteName() : "");
+        if (text == null) return;
+        int pitch = NoteData.parsePitch(text);
+        if (pitch < 0) { lblStatus.setText(" [찾기] 알 수 없는 계이름: " + text); return; }
+        findPitch = pitch;
+        jumpPitch(1);
+    }
+
+    private void jumpPitch(int direction) {
+        if (findPitch < 0) { findPitch(); return; }
+        NoteIndex index = tableModel.getChart().index();
+        long tick = navigationTick(direction);
+        long key = direction > 0 ? index.nextWithPitch(findPitch, tick) : index.previousWithPitch(findPitch, tick);
+        jumpTo(key, NoteData.of(findPitch).getNoteName() + " (" + index.countWithPitch(findPitch) + "개)");
+    }
+
+    // 찾은 노트의 칸을 고르고 판정선에 맞춰 스크롤한다
+    private void jumpTo(long key, String what) {
+        long tick = NoteChart.tickOf(key);
+        int row = key < 0 ? -1 : tableModel.tickToRow(tick);
+        if (row < 0 || row >= tableModel.getRowCount()) { lblStatus.setText(" [찾기] " + what + ": 더 없음"); return; }
+        int lane = NoteChart.laneOf(key);
+        navTick = tick;
+        table.changeSelection(row, lane, false, false);
+        scrollToTick(tick);
+        int pitch = tableModel.getChart().getPitch(tick, lane);
+        lblStatus.setText(" [찾기] " + what + " -> " + NoteData.of(pitch).getNoteName() + " (" + table.getColumnName(lane) + ", tick " + tick + ")");
+    }
+
+    private void copySelection() {
+        if (selection.isEmpty()) return;
+        clipboard = selection.copy(tableModel.getChart());
+        lblStatus.setText(" [복사] " + clipboard.size + "개 노트");
+    }
+
+    // 선택 행의 맨 아래(가장 앞 tick) 에, 선택이 없으면 판정선의 행에 붙여 넣는다
+    private void pasteClipboard() {
+        if (clipboard == null || clipboard.size == 0) return;
+        int row = table.getSelectionModel().getMaxSelectionIndex();
+        long at = row >= 0 ? Math.max(0, tableModel.rowToTick(row))
+                : !selection.isEmpty() ? selection.minTick() : calculateTickFromView() / TICKS_PER_ROW * TICKS_PER_ROW;
+        editSelection(ChartSelection.paste(tableModel.getChart(), clipboard, at), true);
+    }
+
+    // 격자 한 칸만큼 뒤(+1) / 앞(-1) 으로
+    private void shiftSelection(int direction) {
+        long step = Math.max(1, Math.round(snapGrid.stepTicks()));
+        editSelection(selection.shift(tableModel.getChart(), direction * step), true);
+    }
+
+    private void resizeSelection(int direction) {
+        long step = Math.max(1, Math.round(snapGrid.stepTicks()));
+        editSelection(selection.resize(tableModel.getChart(), direction * step), false);
+    }
+
+    // 선택 편집 하나를 커밋 (실행 취소 한 단계, 화면 갱신 한 번). 노트가 옮겨졌으면 옮겨진 자리를 새 선택으로
+    private void editSelection(ChartEdit edit, boolean selectPlaced) {
+        if (edit.count() == 0) return;
+        commitEdit(edit);
+        if (selectPlaced) {
+            clearTableSelection();
+            selection.selectPlaced(edit);
+            repaintSelection();
+        }
+        lblStatus.setText(" [" + edit.label + "] " + edit.count() + "칸 변경 (Ctrl+Z 로 되돌리기)");
+    }
+
+    // --- [수정] 전체 그리드 스냅샷 대신 바뀐 셀만 기록 ---
+    private void commitEdit(ChartEdit edit) {
+        edit.apply(tableModel.getChart());
+        history.push(edit);
+        journal.record(edit, false);
+        if (journal.needsCompaction()) journal.compact(tableModel.getChart().snapshot(), tempoMap);
+        tableModel.fireEditUpdated(edit);
+        editStats(edit, false);
+    }
+
+    private void undo() {
+        ChartEdit edit = history.undo(tableModel.getChart());
+        if (edit != null) journal.record(edit, true);
+        if (edit != null) tableModel.fireEditUpdated(edit);
+        if (edit != null) editStats(edit, true);
+    }
+
+    private void redo() {
+        ChartEdit edit = history.redo(tableModel.getChart());
+        if (edit != null) journal.record(edit, false);
+        if (edit != null) tableModel.fireEditUpdated(edit);
+        if (edit != null) editStats(edit, false);
+    }
+
+    private void editStats(ChartEdit edit, boolean revert) {
+        stats.apply(edit, revert);
+        statsPanel.repaint();
+    }
+
+    private void setupColumns() {
+        String[] headers = {"SCR", "S", "D", "F", "SPACE", "J", "K", "L"};
+        NoteCellRenderer renderer = new NoteCellRenderer(JUDGMENT_LINE_OFFSET);
+        renderer.setSelection(selection, tableModel);
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            TableColumn col = table.getColumnModel().getColumn(i);
+            col.setHeaderValue(headers[i]);
+            col.setPreferredWidth(i == 4 ? 110 : 80);
+            col.setCellRenderer(renderer);
+        }
+    }
+
+    // --- [수정] 파싱/적재는 백그라운드에서, 완성된 차트는 EDT 에서 한 번에 교체 (.rchart 도 같은 경로) ---
+    public void loadMidiFile(String filePath) {
+        File file = new File(filePath);
+        if (!file.exists()) { tableModel.setRowCount(3000); return; }
+        if (loadWorker != null) loadWorker.cancel(true);
+        if (tableModel.getRowCount() == 0) tableModel.setRowCount(3000);
+        // [수정] MIDI 는 먼저 트랙 / 채널을 훑어 가져올 것을 고른다
+        Path path = file.toPath();
+        loadWorker = ChartFile.isChartFile(path) || NoteListParser.isNoteList(path) ? new MidiLoadWorker(file, false) : new TrackScanWorker(file);
+        loadWorker.execute();
+        lblStatus.setText(" 불러오는 중... " + file.getName() + " [Esc]: 취소");
+    }
+
+    private boolean askRestoreSession() {
+        return JOptionPane.showConfirmDialog(this, "지난 세션의 편집 내용이 남아 있습니다. 복원할까요?\n(아니요: " + DEFAULT_MIDI + " 로 새로 시작)",
+                "세션 복원", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION;
+    }
+
+    // [추가] 새 세션: 지금 차트와 편집 기록(세션 파일)을 버리고 input.mid 로, 없으면 빈 차트로 다시 시작한다
+    private void newSession() {
+        if (JOptionPane.showConfirmDialog(this, "지금 차트와 편집 기록을 버리고 새 세션을 시작할까요?", "새 세션",
+                JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) return;
+        cancelLoad();
+        if (sequencer != null && sequencer.isRunning()) togglePlayback();
+        // 불러오기가 끝나면 journal.reset 으로 그 차트가 새 기준이 된다
+        if (new File(DEFAULT_MIDI).exists()) { loadMidiFile(DEFAULT_MIDI); return; }
+        NoteChart empty = new NoteChart();
+        tempoMap = TempoMap.constant(480, TempoMap.DEFAULT_MPQ);
+        meterMap = MeterMap.constant(480);
+        playbackSource = null;
+        try {
+            if (sequencer != null) sequencer.setSequence(ChartFile.toSequence(empty, tempoMap));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        setSnapGrid(snapGrid.withResolution(480));
+        tableModel.setChart(empty, 3000);
+        selection.clear();
+        history.clear();
+        stats = ChartStats.empty(tempoMap);
+        statsPanel.repaint();
+        journal.reset(empty.snapshot(), tempoMap);
+        scrollToTick(0);
+        lblStatus.setText(" [새 세션] 빈 차트");
+    }
+
+    private void restoreSession() {
+        tableModel.setRowCount(3000);
+        loadWorker = new MidiLoadWorker(new File(EditJournal.BASE_FILE), true);
+        loadWorker.execute();
+        lblStatus.setText(" 지난 세션 복원 중...");
+    }
+
+    private void cancelLoad() {
+        if (loadWorker != null && !loadWorker.isDone()) loadWorker.cancel(true);
+    }
+
+    // --- [추가] MIDI 훑어보기: 트랙별 채널 노트 수를 센 뒤 (EDT 에서) 가져올 (트랙, 채널) 을 고르고 적재를 시작한다 ---
+    // 노트가 있는 (트랙, 채널) 이 하나뿐이면 묻지 않는다. SMF 가 아니거나 SMPTE 분해능이면 예전처럼 통째로 읽는다
+    private class TrackScanWorker extends SwingWorker<MidiFileScanner, Void> {
+        private final File file;
+
+        TrackScanWorker(File file) { this.file = file; }
+
+        @Override protected MidiFileScanner doInBackground() throws Exception { return MidiFileScanner.open(file.toPath()); }
+
+        @Override protected void done() {
+            if (loadWorker != this) return;
+            loadWorker = null;
+            if (isCancelled()) { lblStatus.setText(" [취소] 불러오기를 취소했습니다."); return; }
+            MidiFileScanner scanner;
+            try {
+                scanner = get();
+            } catch (Exception e) {
+                // 훑어보기가 못 읽는 파일은 javax.sound.midi 에 맡긴다 (오류도 거기서 알린다)
+                scanner = null;
+            }
+            if (scanner == null) {
+                loadWorker = new MidiLoadWorker(file, false);
+                loadWorker.execute();
+                return;
+            }
+            int[] masks = scanner.noteSourceCount() > 1 ? TrackImportDialog.choose(MidiRhythmEditor.this, scanner, file.getName()) : scanner.defaultSelection();
+            if (masks == null) { lblStatus.setText(" [취소] 불러오기를 취소했습니다."); return; }
+            loadWorker = new MidiLoadWorker(file, scanner, masks);
+            loadWorker.execute();
+            lblStatus.setText(" 불러오는 중... " + file.getName() + " [Esc]: 취소");
+        }
+    }
+
+    private class MidiLoadWorker extends SwingWorker<MidiChartReader.Result, Integer> implements MidiChartReader.Listener {
+        private final File file;
+
+        private final boolean restore;
+        // [추가] 골라 가져올 때: 훑어 둔 파일과 트랙별 채널 마스크
+        private final MidiFileScanner scanner;
+        private final int[] channelMasks;
+        private NoteListParser noteList;
+        private ChartStats chartStats;
+
+        MidiLoadWorker(File file, boolean restore) {
+            this.file = file;
+            this.restore = restore;
+            this.scanner = null;
+            this.channelMasks = null;
+        }
+
+        MidiLoadWorker(File file, MidiFileScanner scanner, int[] channelMasks) {
+            this.file = file;
+            this.restore = false;
+            this.scanner = scanner;
+            this.channelMasks = channelMasks;
+        }
+
+        @Override protected MidiChartReader.Result doInBackground() throws Exception {
+            MidiChartReader.Result result = read();
+            // 통계도 EDT 밖에서 한 번에 만들어 둔다
+            if (result != null) chartStats = ChartStats.of(result.chart, result.tempoMap);
+            return result;
+        }
+
+        private MidiChartReader.Result read() throws Exception {
+            if (restore) return journal.restore();
+            if (scanner != null) return new MidiChartReader().read(scanner, channelMasks, this);
+            if (ChartFile.isChartFile(file.toPath())) return ChartFile.load(file.toPath());
+            if (NoteListParser.isNoteList(file.toPath())) {
+                noteList = new NoteListParser();
+                return noteList.read(file.toPath(), this);
+            }
+            return new MidiChartReader().read(file, this);
+        }
+
+        @Override public void progress(int percent) { publish(percent); }
+
+        @Override protected void process(java.util.List<Integer> chunks) {
+            if (loadWorker != this) return;
+            lblStatus.setText(" 불러오는 중... " + file.getName() + " (" + chunks.get(chunks.size() - 1) + "%) [Esc]: 취소");
+        }
+
+        @Override protected void done() {
+            if (loadWorker != this) return;
+            loadWorker = null;
+            if (isCancelled()) { lblStatus.setText(" [취소] 불러오기를 취소했습니다."); return; }
+            try {
+                MidiChartReader.Result result = get();
+                if (result == null) { lblStatus.setText(" [취소] 불러오기를 취소했습니다."); return; }
+                if (result.sequence != null) sequencer.setSequence(result.sequence);
+                playbackSource = result.source;
+                tempoMap = result.tempoMap;
+                meterMap = result.meterMap;
+                setSnapGrid(snapGrid.withResolution(result.tempoMap.getResolution()));
+                int totalRows = (int) (result.tickLength / TICKS_PER_ROW) + 500;
+                tableModel.setChart(result.chart, totalRows);
+                selection.clear();
+                stats = chartStats;
+                statsPanel.repaint();
+                history.clear();
+                // 복원이면 저널에 이어 쓰고, 새로 불러왔으면 이 차트를 새 세션의 기준으로 삼는다
+                if (restore) journal.open(result.chart, result.tempoMap);
+                else journal.reset(result.chart.snapshot(), result.tempoMap);
+                scrollToTick(0);
+                String msg = " [완료] " + (restore ? "세션 복원" : file.getName()) + " - " + result.chart.size() + "개 노트";
+                // 레인이 겹쳐 옮기거나 버린 노트 수
+                if (result.displaced > 0 || result.dropped > 0) msg += " (레인 이동 " + result.displaced + ", 버림 " + result.dropped + ")";
+                // 노트 목록: 형식이 틀린 줄은 건너뛰고 개수와 첫 번째 이유만 표시 (전체 목록은 콘솔)
+                if (noteList != null && noteList.getMalformedCount() > 0) {
+                    msg += " (건너뛴 줄 " + noteList.getMalformedCount() + "개, " + noteList.getErrors().get(0) + ")";
+                    noteList.getErrors().forEach(System.err::println);
+                }
+                lblStatus.setText(msg);
+            } catch (Exception e) {
+                lblStatus.setText(" [오류] 불러오기 실패: " + file.getName());
+                e.printStackTrace();
+                // 세션 파일이 깨졌으면 원래대로 MIDI 를 불러온다
+                if (restore) loadMidiFile(DEFAULT_MIDI);
+            }
+        }
+    }
+
+    private class NoteTransferHandler extends TransferHandler {
+        @Override public int getSourceActions(JComponent c) { return MOVE; }
+        @Override protected Transferable createTransferable(JComponent c) {
+            int r = table.getSelectedRow(), col = table.getSelectedColumn();
+            NoteData nd = (NoteData) table.getValueAt(r, col);
+            return nd != null ? new NoteTransferable(nd, r, col) : null;
+        }
+        @Override public boolean canImport(TransferSupport support) { return support.isDataFlavorSupported(NoteTransferable.FLAVOR); }
+        @Override public boolean importData(TransferSupport support) {
+            if (!canImport(support)) return false;
+            JTable.DropLocation dl = (JTable.DropLocation) support.getDropLocation();
+            try {
+                NoteTransferable t = (NoteTransferable) support.getTransferable().getTransferData(NoteTransferable.FLAVOR);
+                if (dl.getRow() != t.sourceRow) return false; 
+                moveNote(t.sourceRow, t.sourceCol, dl.getColumn());
+                return true;
+            } catch (Exception e) { return false; }
+        }
+    }
+
+    private static class NoteTransferable implements Transferable {
+        public static final DataFlavor FLAVOR = new DataFlavor(NoteData.class, "NoteData");
+        NoteData data; int sourceRow, sourceCol;
+        NoteTransferable(NoteData d, int r, int c) { data = d; sourceRow = r; sourceCol = c; }
+        @Override public DataFlavor[] getTransferDataFlavors() { return new DataFlavor[]{FLAVOR}; }
+        @Override public boolean isDataFlavorSupported(DataFlavor f) { return FLAVOR.equals(f); }
+        @Override public Object getTransferData(DataFlavor f) { return this; }
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("sun.java2d.uiScale", "1.0");
+        SwingUtilities.invokeLater(MidiRhythmEditor::new);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package ai28;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+
+import javax.swing.JTable;
+import javax.swing.SwingConstants;
+import javax.swing.UIManager;
+import javax.swing.border.Border;
+import javax.swing.table.DefaultTableCellRenderer;
+
+// --- 렌더러: 숫자 대신 계이름(C3, D#4...) 출력 ---
+// 색/폰트/글자는 모두 미리 만들어 두고 그리는 동안에는 아무것도 new 하지 않는다.
+// (재생 중에는 10ms 마다 보이는 셀 전체가 이 경로를 지나간다)
+class NoteCellRenderer extends DefaultTableCellRenderer {
+    static final Font NOTE_FONT = new Font("Consolas", Font.BOLD, 12);
+    static final int OCTAVES = 11;
+
+    private static final Color EMPTY_BG = Color.BLACK;
+    private static final Color JUDGMENT_BG = new Color(80, 30, 30);
+
+    // [레인][옥타브][선택 여부] - NoteHighwayView 와 같이 쓴다
+    private static final Color[][][] NOTE_PALETTE = new Color[NoteChart.COLUMN_COUNT][OCTAVES][2];
+    // [추가] 롱노트 몸통: 같은 색을 어둡게
+    private static final Color[][][] HOLD_PALETTE = new Color[NoteChart.COLUMN_COUNT][OCTAVES][2];
+    // [추가] 한 칸에 노트가 여럿일 때의 글자 "C4 +2" ([pitch][나머지 개수], MAX_EXTRA 개 이상은 "+")
+    private static final int MAX_EXTRA = 9;
+    private static final String[][] EXTRA_LABELS = new String[128][MAX_EXTRA + 1];
+    static {
+        for (int pitch = 0; pitch < 128; pitch++) {
+            for (int extra = 1; extra <= MAX_EXTRA; extra++) {
+                EXTRA_LABELS[pitch][extra] = NoteData.of(pitch).getNoteName() + " +" + extra + (extra == MAX_EXTRA ? "+" : "");
+            }
+        }
+    }
+    static final Color[] EMPTY_PALETTE = {EMPTY_BG, EMPTY_BG.brighter()};
+    static final Color[] JUDGMENT_PALETTE = {JUDGMENT_BG, JUDGMENT_BG.brighter()};
+    static {
+        for (int lane = 0; lane < NoteChart.COLUMN_COUNT; lane++) {
+            for (int octave = 0; octave < OCTAVES; octave++) {
+                Color base = octaveColor(lane, octave - 1);
+                NOTE_PALETTE[lane][octave][0] = base;
+                NOTE_PALETTE[lane][octave][1] = base.brighter();
+                Color hold = new Color(base.getRed() * 45 / 100, base.getGreen() * 45 / 100, base.getBlue() * 45 / 100);
+                HOLD_PALETTE[lane][octave][0] = hold;
+                HOLD_PALETTE[lane][octave][1] = hold.brighter();
+            }
+        }
+    }
+
+    private final int judgmentOffset;
+    private Border focusBorder;
+    // [추가] 눈금자 / 일괄 편집으로 생긴 선택 (JTable 선택 모델은 사각형 하나만 표현한다)
+    private ChartSelection selection;
+    private ChartTableModel model;
+
+    NoteCellRenderer(int judgmentOffset) {
+        this.judgmentOffset = judgmentOffset;
+        setHorizontalAlignment(SwingConstants.CENTER);
+        focusBorder = UIManager.getBorder("Table.focusCellHighlightBorder");
+    }
+
+    void setSelection(ChartSelection selection, ChartTableModel model) {
+        this.selection = selection;
+        this.model = model;
+    }
+
+    static Color octaveColor(int col, int octave) {
+        if (col == 0) return new Color(255, 150, 150);
+        if (col == 4) return new Color(255, 255, 150);
+        return new Color(150, 200, 255);
+    }
+
+    static Color noteColor(int lane, int pitch, boolean selected) {
+        return NOTE_PALETTE[lane][pitch / 12][selected ? 1 : 0];
+    }
+
+    static Color holdColor(int lane, int pitch, boolean selected) {
+        return HOLD_PALETTE[lane][pitch / 12][selected ? 1 : 0];
+    }
+
+    @Override
+    public void updateUI() {
+        super.updateUI();
+        focusBorder = UIManager.getBorder("Table.focusCellHighlightBorder");
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+        int sel = isSelected || selection != null && selection.contains(model.rowToTick(row), column) ? 1 : 0;
+        if (value instanceof NoteData data) {
+            setBackground(NOTE_PALETTE[column][data.pitch / 12][sel]);
+            setForeground(Color.BLACK);
+            setFont(NOTE_FONT);
+            int extra = model != null ? model.noteCount(row, column) - 1 : 0;
+            // [핵심] 계이름 출력 (미리 만들어 둔 문자열), 같은 칸에 더 있으면 그 개수도
+            setText(extra > 0 ? EXTRA_LABELS[data.pitch][Math.min(extra, MAX_EXTRA)] : data.getNoteName());
+        } else {
+            boolean judgmentRow = row == table.getRowCount() - 1 - judgmentOffset;
+            // [추가] 롱노트 몸통 (칸마다 값을 두지 않고 모델에 물어본다)
+            int hold = model != null ? model.holdIndex(row, column) : -1;
+            if (hold >= 0) {
+                NoteChart chart = model.getChart();
+                boolean headSelected = selection != null && selection.contains(chart.tickAt(hold), column);
+                setBackground(HOLD_PALETTE[column][chart.pitchAt(hold) / 12][sel == 1 || headSelected ? 1 : 0]);
+            } else {
+                setBackground(judgmentRow ? JUDGMENT_PALETTE[sel] : EMPTY_PALETTE[sel]);
+            }
+            setForeground(table.getForeground());
+            setFont(table.getFont());
+            setText("");
+        }
+        setBorder(hasFocus && focusBorder != null ? focusBorder : noFocusBorder);
+        return this;
+    }
+}
@@ -0,0 +1,307 @@
+package ai28;
+
+import java.util.Arrays;
+
+// --- 노트 저장소 ---
+// (tick, lane) 을 하나의 long 키로 묶어 정렬된 기본형 배열에 보관한다.
+// 노트 값(셀)은 pitch | velocity << 8 | 길이 << 15 로 묶은 int 로 주고받는다.
+// [추가] 길이(duration) 가 0 이면 한 번 치는 노트, 0 보다 크면 tick + 길이 까지 누르는 롱노트. 같은 레인의 다음 노트가
+// 먼저 오면 거기서 끝난다 (holdEnd). 셀에 들어 있으므로 ChartEdit / 저널 / 복사는 길이를 그대로 나른다.
+// 빈 행은 메모리를 차지하지 않으므로 사용량은 행 수가 아니라 노트 수에 비례한다.
+// 수정은 EDT 에서만 하고, 다른 스레드에서 읽을 때는 synchronized 메서드를 쓴다.
+class NoteChart {
+    static final int COLUMN_COUNT = 8;
+    static final int LANE_BITS = 3;
+    static final int EMPTY = -1;
+    static final int DEFAULT_VELOCITY = 100;
+    // 셀의 길이 칸 (16비트, tick 단위). 더 긴 노트는 여기서 자른다
+    static final int MAX_DURATION = 0xFFFF;
+    private static final int DURATION_SHIFT = 15;
+
+    private long[] keys;
+    private byte[] pitches;
+    private byte[] velocities;
+    // [추가] 노트별 길이 (부호 없는 16비트)
+    private char[] durations;
+    private int size;
+    // [추가] 레인/음 높이/화음 위치 색인. 처음 찾을 때 만들고 이후 모든 수정에서 같이 고친다 (스냅샷에는 없다)
+    private NoteIndex index;
+
+    NoteChart() { this(new long[16], new byte[16], new byte[16], new char[16], 0); }
+
+    private NoteChart(long[] keys, byte[] pitches, byte[] velocities, char[] durations, int size) {
+        this.keys = keys;
+        this.pitches = pitches;
+        this.velocities = velocities;
+        this.durations = durations;
+        this.size = size;
+    }
+
+    // 이미 정렬된 배열을 그대로 감싼다 (파일 적재용). 정렬/중복은 확인한다. durations 가 null 이면 모두 0
+    static NoteChart wrap(long[] keys, byte[] pitches, byte[] velocities, char[] durations, int size) {
+        for (int i = 1; i < size; i++) {
+            if (keys[i - 1] >= keys[i]) throw new IllegalArgumentException("정렬되지 않은 노트 배열: " + i);
+        }
+        return new NoteChart(keys, pitches, velocities, durations != null ? durations : new char[keys.length], size);
+    }
+
+    static int cell(int pitch, int velocity) { return (pitch & 0x7F) | (velocity & 0x7F) << 8; }
+    static int cell(int pitch, int velocity, int duration) { return cell(pitch, velocity) | (duration & MAX_DURATION) << DURATION_SHIFT; }
+    static int cellPitch(int cell) { return cell & 0x7F; }
+    static int cellVelocity(int cell) { return (cell >> 8) & 0x7F; }
+    static int cellDuration(int cell) { return cell >>> DURATION_SHIFT & MAX_DURATION; }
+    static int withDuration(int cell, long duration) { return cell(cellPitch(cell), cellVelocity(cell), clampDuration(duration)); }
+    static int clampDuration(long duration) { return (int) Math.max(0, Math.min(MAX_DURATION, duration)); }
+
+    static long key(long tick, int lane) { return (tick << LANE_BITS) | lane; }
+    static long tickOf(long key) { return key >>> LANE_BITS; }
+    static int laneOf(long key) { return (int) (key & (COLUMN_COUNT - 1)); }
+
+    int size() { return size; }
+    long keyAt(int i) { return keys[i]; }
+    long tickAt(int i) { return keys[i] >>> LANE_BITS; }
+    int laneAt(int i) { return (int) (keys[i] & (COLUMN_COUNT - 1)); }
+    int pitchAt(int i) { return pitches[i]; }
+    int velocityAt(int i) { return velocities[i]; }
+    int durationAt(int i) { return durations[i]; }
+    int cellAt(int i) { return cell(pitches[i], velocities[i], durations[i]); }
+
+    long lastTick() { return size == 0 ? 0 : tickAt(size - 1); }
+
+    // [추가] 노트 i 가 실제로 끝나는 tick: tick + 길이 와 같은 레인 다음 노트 중 이른 쪽 (치는 노트면 tick)
+    long holdEnd(int i) {
+        long tick = tickAt(i);
+        if (durations[i] == 0) return tick;
+        long next = index().nextInLane(laneAt(i), tick);
+        return next < 0 ? tick + durations[i] : Math.min(tick + durations[i], tickOf(next));
+    }
+
+    synchronized NoteIndex index() {
+        if (index == null) index = new NoteIndex(this);
+        return index;
+    }
+
+    int indexOf(long tick, int lane) {
+        return Arrays.binarySearch(keys, 0, size, key(tick, lane));
+    }
+
+    // tick 이상인 첫 노트의 인덱스 (없으면 size)
+    int ceilIndex(long tick) {
+        int i = Arrays.binarySearch(keys, 0, size, key(tick, 0));
+        return i >= 0 ? i : -i - 1;
+    }
+
+    int getPitch(long tick, int lane) {
+        int i = indexOf(tick, lane);
+        return i >= 0 ? pitches[i] : EMPTY;
+    }
+
+    int getCell(long tick, int lane) {
+        int i = indexOf(tick, lane);
+        return i >= 0 ? cellAt(i) : EMPTY;
+    }
+
+    // [fromTick, toTick) 안에서 lane 의 첫 노트 인덱스 (없으면 -1). 한 행 안의 노트를 찾을 때 쓴다
+    int indexInRange(long fromTick, long toTick, int lane) {
+        for (int i = ceilIndex(fromTick); i < size && tickAt(i) < toTick; i++) {
+            if (laneAt(i) == lane) return i;
+        }
+        return -1;
+    }
+
+    // 해당 tick 에 노트가 있는 레인들의 비트마스크
+    int laneMask(long tick) {
+        int mask = 0;
+        for (int i = ceilIndex(tick); i < size && tickAt(i) == tick; i++) mask |= 1 << laneAt(i);
+        return mask;
+    }
+
+    // 다른 스레드(재생/저장)용: [fromTick, toTick) 구간을 버퍼에 복사하고 개수를 돌려준다
+    synchronized int copyRange(long fromTick, long toTick, long[] keysOut, byte[] pitchesOut) {
+        return copyRange(fromTick, toTick, keysOut, pitchesOut, null);
+    }
+
+    // [추가] 노트가 실제로 끝나는 tick (holdEnd: 같은 레인 다음 노트에서 끊긴 길이, 치는 노트면 그 tick) 도 같이.
+    // 잠근 채로 구하므로 화면이 그리는 길이와 같다 (endsOut 이 null 이면 건너뛴다)
+    synchronized int copyRange(long fromTick, long toTick, long[] keysOut, byte[] pitchesOut, long[] endsOut) {
+        int n = 0;
+        for (int i = ceilIndex(fromTick); i < size && n < keysOut.length && tickAt(i) < toTick; i++, n++) {
+            keysOut[n] = keys[i];
+            pitchesOut[n] = pitches[i];
+            if (endsOut != null) endsOut[n] = holdEnd(i);
+        }
+        return n;
+    }
+
+    // 이전 셀 값을 돌려준다 (없었으면 EMPTY)
+    synchronized int put(long tick, int lane, int cell) {
+        long k = key(tick, lane);
+        int i = Arrays.binarySearch(keys, 0, size, k);
+        if (i >= 0) {
+            int old = cellAt(i);
+            pitches[i] = (byte) cellPitch(cell);
+            velocities[i] = (byte) cellVelocity(cell);
+            durations[i] = (char) cellDuration(cell);
+            if (index != null) index.changed(k, old, cell);
+            return old;
+        }
+        i = -i - 1;
+        if (size == keys.length) grow(size + 1);
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(pitches, i, pitches, i + 1, size - i);
+        System.arraycopy(velocities, i, velocities, i + 1, size - i);
+        System.arraycopy(durations, i, durations, i + 1, size - i);
+        keys[i] = k;
+        pitches[i] = (byte) cellPitch(cell);
+        velocities[i] = (byte) cellVelocity(cell);
+        durations[i] = (char) cellDuration(cell);
+        size++;
+        if (index != null) index.added(k, cell);
+        return EMPTY;
+    }
+
+    synchronized int remove(long tick, int lane) {
+        int i = indexOf(tick, lane);
+        if (i < 0) return EMPTY;
+        int old = cellAt(i);
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(pitches, i + 1, pitches, i, size - i - 1);
+        System.arraycopy(velocities, i + 1, velocities, i, size - i - 1);
+        System.arraycopy(durations, i + 1, durations, i, size - i - 1);
+        size--;
+        if (index != null) index.removed(key(tick, lane), old);
+        return old;
+    }
+
+    // 저장용 스냅샷: 배열을 복사해 두므로 이후 편집과 상관없이 다른 스레드에서 읽어도 된다
+    synchronized NoteChart snapshot() {
+        return new NoteChart(Arrays.copyOf(keys, size), Arrays.copyOf(pitches, size), Arrays.copyOf(velocities, size),
+                             Arrays.copyOf(durations, size), size);
+    }
+
+    // --- [추가] 여러 (key, 셀) 변경을 한 번에 반영 (EMPTY 는 삭제) ---
+    // 변경이 많으면 하나씩 끼워 넣지 않고 정렬 후 기존 배열과 한 번에 병합한다: O(n + k log k)
+    private static final int SMALL_BATCH = 32;
+
+    synchronized void setAll(long[] changeKeys, int[] values, int count) {
+        if (count < SMALL_BATCH) {
+            for (int i = 0; i < count; i++) {
+                long k = changeKeys[i];
+                if (values[i] == EMPTY) remove(tickOf(k), laneOf(k));
+                else put(tickOf(k), laneOf(k), values[i]);
+            }
+            return;
+        }
+        long[] order = sortedOrder(changeKeys, count);
+        long[] outKeys = new long[Math.max(16, size + count)];
+        byte[] outPitches = new byte[outKeys.length];
+        byte[] outVelocities = new byte[outKeys.length];
+        char[] outDurations = new char[outKeys.length];
+        int n = 0, i = 0, j = 0;
+        while (i < size || j < count) {
+            long ck = j < count ? order[j] >>> ORDER_BITS : Long.MAX_VALUE;
+            if (i < size && keys[i] < ck) {
+                outKeys[n] = keys[i]; outPitches[n] = pitches[i]; outVelocities[n] = velocities[i]; outDurations[n] = durations[i]; n++; i++;
+                continue;
+            }
+            // 같은 키의 변경이 여러 개면 마지막 것만 반영
+            int v = values[(int) (order[j] & ORDER_MASK)];
+            while (j + 1 < count && order[j + 1] >>> ORDER_BITS == ck) v = values[(int) (order[++j] & ORDER_MASK)];
+            j++;
+            if (i < size && keys[i] == ck) i++;
+            if (v != EMPTY) {
+                outKeys[n] = ck; outPitches[n] = (byte) cellPitch(v); outVelocities[n] = (byte) cellVelocity(v); outDurations[n] = (char) cellDuration(v); n++;
+            }
+        }
+        keys = outKeys;
+        pitches = outPitches;
+        velocities = outVelocities;
+        durations = outDurations;
+        size = n;
+        // 병합은 이미 O(n) 이므로 색인도 한 번에 다시 만든다
+        if (index != null) index.rebuild();
+    }
+
+    // 정렬 시 원래 순서를 키 하위 비트에 실어 보낸다 (같은 키는 입력 순서 유지)
+    private static final int ORDER_BITS = 24;
+    private static final long ORDER_MASK = (1L << ORDER_BITS) - 1;
+    static final long MAX_TICK = (1L << (63 - ORDER_BITS - LANE_BITS)) - 1;
+
+    private static long[] sortedOrder(long[] keys, int count) {
+        if (count > ORDER_MASK + 1) throw new IllegalStateException("노트 수 초과: " + count);
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) order[i] = (keys[i] << ORDER_BITS) | i;
+        Arrays.sort(order);
+        return order;
+    }
+
+    private void grow(int minCapacity) {
+        int cap = Math.max(minCapacity, keys.length + (keys.length >> 1));
+        keys = Arrays.copyOf(keys, cap);
+        pitches = Arrays.copyOf(pitches, cap);
+        velocities = Arrays.copyOf(velocities, cap);
+        durations = Arrays.copyOf(durations, cap);
+    }
+
+    // --- 대량 적재용 빌더: 순서 상관없이 모은 뒤 한 번에 정렬 ---
+    // 같은 (tick, lane) 에 여러 노트가 오면 기존 setValueAt 과 같이 나중 것이 남는다.
+    static class Builder {
+        private long[] keys = new long[1024];
+        private byte[] pitches = new byte[1024];
+        private byte[] velocities = new byte[1024];
+        private char[] durations = new char[1024];
+        private int count;
+
+        void add(long tick, int lane, int pitch, int velocity) { add(tick, lane, pitch, velocity, 0); }
+
+        void add(long tick, int lane, int pitch, int velocity, int duration) {
+            if (tick < 0 || tick > MAX_TICK) throw new IllegalArgumentException("tick 범위 초과: " + tick);
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                pitches = Arrays.copyOf(pitches, count * 2);
+                velocities = Arrays.copyOf(velocities, count * 2);
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            keys[count] = key(tick, lane);
+            pitches[count] = (byte) pitch;
+            velocities[count] = (byte) velocity;
+            durations[count] = (char) clampDuration(duration);
+            count++;
+        }
+
+        int count() { return count; }
+
+        private boolean isStrictlySorted() {
+            for (int i = 1; i < count; i++) if (keys[i - 1] >= keys[i]) return false;
+            return true;
+        }
+
+        NoteChart build() {
+            // 이미 key 순서대로(중복 없이) 들어왔으면 정렬 없이 배열을 그대로 넘긴다
+            if (isStrictlySorted()) {
+                NoteChart chart = new NoteChart(keys, pitches, velocities, durations, count);
+                keys = new long[16];
+                pitches = new byte[16];
+                velocities = new byte[16];
+                durations = new char[16];
+                count = 0;
+                return chart;
+            }
+            long[] order = sortedOrder(keys, count);
+            long[] outKeys = new long[Math.max(16, count)];
+            byte[] outPitches = new byte[outKeys.length];
+            byte[] outVelocities = new byte[outKeys.length];
+            char[] outDurations = new char[outKeys.length];
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                long k = order[i] >>> ORDER_BITS;
+                int src = (int) (order[i] & ORDER_MASK);
+                if (n == 0 || outKeys[n - 1] != k) outKeys[n++] = k;
+                outPitches[n - 1] = pitches[src];
+                outVelocities[n - 1] = velocities[src];
+                outDurations[n - 1] = durations[src];
+            }
+            return new NoteChart(outKeys, outPitches, outVelocities, outDurations, n);
+        }
+    }
+}
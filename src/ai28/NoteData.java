@@ -0,0 +1,41 @@
+package ai28;
+
+// --- NoteData: 계이름 변환 로직 포함 ---
+// pitch 별로 인스턴스를 하나만 만들어 공유한다 (셀마다 new 하지 않음)
+final class NoteData {
+    // MIDI 계이름 매핑용 배열
+    static final String[] NOTE_NAMES = {"C", "C#", "D", "D#", "E", "F", "F#", "G", "G#", "A", "A#", "B"};
+
+    private static final NoteData[] CACHE = new NoteData[128];
+    static {
+        for (int p = 0; p < CACHE.length; p++) CACHE[p] = new NoteData(p);
+    }
+
+    final int pitch;
+    private final String noteName;
+
+    private NoteData(int pitch) {
+        this.pitch = pitch;
+        // Pitch 번호를 "C3", "F#4" 형태로 변환
+        this.noteName = NOTE_NAMES[pitch % 12] + ((pitch / 12) - 1);
+    }
+
+    static NoteData of(int pitch) { return CACHE[pitch & 0x7F]; }
+
+    String getNoteName() { return noteName; }
+
+    // "C4", "f#3" 같은 계이름이나 "60" 같은 pitch 번호 -> pitch (알 수 없으면 -1)
+    static int parsePitch(String text) {
+        String s = text.trim();
+        if (!s.isEmpty() && Character.isDigit(s.charAt(0))) {
+            try {
+                int p = Integer.parseInt(s);
+                return p >= 0 && p < CACHE.length ? p : -1;
+            } catch (NumberFormatException e) { return -1; }
+        }
+        for (NoteData nd : CACHE) if (nd.noteName.equalsIgnoreCase(s)) return nd.pitch;
+        return -1;
+    }
+
+    @Override public String toString() { return noteName; }
+}
@@ -0,0 +1,336 @@
+package ai28;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+
+import javax.swing.JComponent;
+import javax.swing.JTable;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.TableColumnModel;
+
+// --- 노트 하이웨이: JTable 셀 렌더러를 거치지 않고 NoteChart 를 직접 그리는 뷰 ---
+// 레인 폭/선택 상태는 JTable 과 공유하고, 세로 위치는 TickScale 로 tick 에서 바로 계산한다.
+// 배율 1 에서는 JTable 과 좌표가 같으므로 스크롤 위치와 편집 동작이 그대로 맞는다.
+// 보이는 tick 구간의 노트만 찾아 그리고, 바뀐 행만 다시 그린다.
+// 축소해서 한 픽셀 줄에 노트가 여럿 겹치면 레인마다 하나만 그리고, 8 레인이 다 찼으면 다음 픽셀 줄로 건너뛴다.
+// 여러 칸 선택(ChartSelection)은 보이는 구간의 비트 구간만 훑어 사각형으로 칠한다.
+// [추가] 롱노트는 머리 위로 끝 tick 까지 이어진 막대 하나로 그린다. 보이는 구간 앞에서 시작해 걸쳐 있는 것(레인마다 하나)과
+// 구간 안에서 시작하는 것만 NoteIndex 의 롱노트 키로 찾고, 레인마다 이미 칠한 높이 위쪽만 더 칠한다.
+class NoteHighwayView extends JComponent implements Scrollable {
+    // 클릭/드래그를 에디터에 전달
+    interface Listener {
+        void notePressed(int row, int lane, NoteData note);
+        void noteMoved(int row, int fromLane, int toLane);
+    }
+
+    private static final Color GRID_COLOR = new Color(45, 45, 45);
+    private static final Color BEAT_COLOR = new Color(80, 80, 80);
+    private static final Color LABEL_COLOR = Color.BLACK;
+    private static final Color SELECTION_COLOR = new Color(40, 60, 100);
+    // 축소해도 노트가 사라지지 않는 최소 높이 / 행 구분선을 그리는 최소 간격
+    private static final int MIN_NOTE_HEIGHT = 2, MIN_GRID_SPACING = 4;
+    private static final int ALL_LANES = (1 << NoteChart.COLUMN_COUNT) - 1;
+
+    private final JTable table;
+    private final ChartTableModel model;
+    private final TickScale scale;
+    private final Rectangle clip = new Rectangle();
+    private final int[] laneX = new int[NoteChart.COLUMN_COUNT + 1];
+    private Listener listener;
+    // 행 구분선 대신 그리는 스냅 격자 (null 이면 행 구분선)
+    private SnapGrid grid;
+    private int selRow = -1, selLane = -1;
+    private int dragRow = -1, dragLane = -1;
+    private ChartSelection selection;
+    // 선택 구간을 칠할 때 쓰는 상태 (그릴 때 람다를 새로 만들지 않도록 필드로 둔다)
+    private final ChartSelection.RunVisitor selectionPainter = this::paintSelectionRun;
+    private Graphics runGraphics;
+    // 롱노트를 그릴 때 레인마다 이미 칠한 가장 위 y
+    private final int[] holdTop = new int[NoteChart.COLUMN_COUNT];
+
+    NoteHighwayView(JTable table, ChartTableModel model, TickScale scale) {
+        this.table = table;
+        this.model = model;
+        this.scale = scale;
+        setOpaque(true);
+        setBackground(Color.BLACK);
+        setFont(NoteCellRenderer.NOTE_FONT);
+
+        model.addTableModelListener(this::modelChanged);
+        ListSelectionListener selectionListener = this::selectionChanged;
+        table.getSelectionModel().addListSelectionListener(selectionListener);
+        table.getColumnModel().getSelectionModel().addListSelectionListener(selectionListener);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override public void mousePressed(MouseEvent e) {
+                int row = rowAt(e.getY()), lane = laneAt(e.getX());
+                if (row < 0 || lane < 0) return;
+                // Shift+클릭: 사각형 선택 넓히기
+                table.changeSelection(row, lane, false, e.isShiftDown());
+                if (e.isShiftDown()) return;
+                Object val = model.getValueAt(row, lane);
+                if (val instanceof NoteData nd) {
+                    dragRow = row;
+                    dragLane = lane;
+                    if (listener != null) listener.notePressed(row, lane, nd);
+                }
+            }
+
+            // 다른 행으로 끌면 레인 이동 대신 사각형 선택
+            @Override public void mouseDragged(MouseEvent e) {
+                int row = rowAt(e.getY()), lane = laneAt(e.getX());
+                if (row < 0 || lane < 0 || row == dragRow) return;
+                dragRow = dragLane = -1;
+                table.changeSelection(row, lane, false, true);
+            }
+
+            @Override public void mouseReleased(MouseEvent e) {
+                int lane = laneAt(e.getX());
+                // 기존 DnD 와 같이 같은 행 안에서 레인만 옮길 수 있다
+                if (dragRow >= 0 && lane >= 0 && lane != dragLane && rowAt(e.getY()) == dragRow && listener != null) {
+                    listener.noteMoved(dragRow, dragLane, lane);
+                    table.changeSelection(dragRow, lane, false, false);
+                }
+                dragRow = dragLane = -1;
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    void setSelection(ChartSelection selection) {
+        this.selection = selection;
+        repaint();
+    }
+
+    void setListener(Listener listener) { this.listener = listener; }
+
+    void setGrid(SnapGrid grid) {
+        this.grid = grid;
+        repaint();
+    }
+
+    int rowAt(int y) { return scale.yToRow(y); }
+
+    int laneAt(int x) {
+        updateLaneBounds();
+        for (int lane = 0; lane < NoteChart.COLUMN_COUNT; lane++) {
+            if (x >= laneX[lane] && x < laneX[lane + 1]) return lane;
+        }
+        return -1;
+    }
+
+    private void updateLaneBounds() {
+        TableColumnModel cm = table.getColumnModel();
+        int x = 0;
+        for (int lane = 0; lane < NoteChart.COLUMN_COUNT; lane++) {
+            laneX[lane] = x;
+            x += cm.getColumn(lane).getWidth();
+        }
+        laneX[NoteChart.COLUMN_COUNT] = x;
+    }
+
+    // --- 변경된 행만 다시 그리기 ---
+    private void modelChanged(TableModelEvent e) {
+        if (e.getFirstRow() == TableModelEvent.HEADER_ROW || e.getLastRow() == Integer.MAX_VALUE) {
+            revalidate();
+            repaint();
+        } else {
+            repaintRows(e.getFirstRow(), e.getLastRow());
+        }
+    }
+
+    private void selectionChanged(ListSelectionEvent e) {
+        if (e.getValueIsAdjusting()) return;
+        repaintCell(selRow, selLane);
+        selRow = table.getSelectedRow();
+        selLane = table.getSelectedColumn();
+        repaintCell(selRow, selLane);
+    }
+
+    // 행 first..last 의 tick 구간이 덮는 y 범위 (최소 노트 높이 포함)
+    private void repaintRows(int first, int last) {
+        repaintTicks(0, getWidth(), model.rowToTick(last), model.rowToTick(first) + model.getTicksPerRow());
+    }
+
+    private void repaintCell(int row, int lane) {
+        if (row < 0 || lane < 0) return;
+        updateLaneBounds();
+        long tick = model.rowToTick(row);
+        repaintTicks(laneX[lane], laneX[lane + 1] - laneX[lane], tick, tick + model.getTicksPerRow());
+    }
+
+    private void repaintTicks(int x, int w, long fromTick, long toTick) {
+        int top = (int) Math.floor(scale.tickToY(toTick));
+        int bottom = (int) Math.ceil(scale.tickToY(fromTick));
+        repaint(x, top - 1, w, Math.max(bottom - top, MIN_NOTE_HEIGHT) + 2);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        updateLaneBounds();
+        return new Dimension(laneX[NoteChart.COLUMN_COUNT], scale.height());
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.getClipBounds(clip);
+        if (clip.isEmpty()) clip.setBounds(0, 0, getWidth(), getHeight());
+        int tpr = model.getTicksPerRow();
+        double ppt = scale.pixelsPerTick();
+        int rowH = Math.max(MIN_NOTE_HEIGHT, (int) Math.round(scale.rowPixels()));
+        updateLaneBounds();
+
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (model.getRowCount() == 0) return;
+
+        // 보이는 tick 구간 (노트는 자기 tick 위로 rowH 만큼 그려지므로 아래쪽으로 여유를 둔다)
+        long fromTick = Math.max(0, (long) Math.floor(scale.yToTick(clip.y + clip.height + rowH)));
+        long toTick = (long) Math.ceil(scale.yToTick(clip.y)) + 1;
+
+        // 판정선 (tick 0 의 행)
+        int judgmentY = (int) Math.round(scale.tickToY(0));
+        g.setColor(NoteCellRenderer.JUDGMENT_PALETTE[0]);
+        g.fillRect(clip.x, judgmentY - rowH, clip.width, rowH);
+
+        // 여러 칸 선택
+        if (selection != null && !selection.isEmpty()) {
+            runGraphics = g;
+            g.setColor(SELECTION_COLOR);
+            selection.forEachRun(fromTick, toTick, selectionPainter);
+            runGraphics = null;
+        }
+
+        // 선택된 빈 셀
+        if (selRow >= 0 && selLane >= 0 && model.getValueAt(selRow, selLane) == null) {
+            int y = (int) Math.round(scale.tickToY(model.rowToTick(selRow)));
+            g.setColor(NoteCellRenderer.EMPTY_PALETTE[1]);
+            g.fillRect(laneX[selLane], y - rowH, laneX[selLane + 1] - laneX[selLane], rowH);
+        }
+
+        NoteChart chart = model.getChart();
+        NoteIndex index = chart.index();
+        if (index.holdCount() > 0) {
+            Arrays.fill(holdTop, Integer.MAX_VALUE);
+            for (int lane = 0; lane < NoteChart.COLUMN_COUNT; lane++) {
+                int h = index.holdCovering(lane, fromTick);
+                if (h >= 0) paintHold(g, chart, h, rowH);
+            }
+            for (long k = index.nextHold(NoteChart.key(fromTick, 0) - 1); k >= 0 && NoteChart.tickOf(k) < toTick; k = index.nextHold(k)) {
+                paintHold(g, chart, chart.indexOf(NoteChart.tickOf(k), NoteChart.laneOf(k)), rowH);
+            }
+        }
+
+        g.setFont(getFont());
+        FontMetrics fm = g.getFontMetrics();
+        boolean labels = rowH >= fm.getAscent();
+        int textDy = (rowH - fm.getHeight()) / 2 + fm.getAscent();
+        int lineY = Integer.MIN_VALUE, lineMask = 0;
+        for (int i = chart.ceilIndex(fromTick), n = chart.size(); i < n; i++) {
+            long tick = chart.tickAt(i);
+            if (tick >= toTick) break;
+            int yBottom = (int) Math.round(scale.tickToY(tick));
+            int lane = chart.laneAt(i);
+            if (yBottom != lineY) { lineY = yBottom; lineMask = 0; }
+            if ((lineMask >>> lane & 1) != 0) continue;
+            lineMask |= 1 << lane;
+            int pitch = chart.pitchAt(i);
+            int row = model.tickToRow(tick);
+            boolean selected = row == selRow && lane == selLane || selection != null && selection.contains(tick, lane);
+            int x = laneX[lane], w = laneX[lane + 1] - x, y = yBottom - rowH;
+            g.setColor(NoteCellRenderer.noteColor(lane, pitch, selected));
+            g.fillRect(x, y, w, rowH);
+            if (labels) {
+                String name = NoteData.of(pitch).getNoteName();
+                g.setColor(LABEL_COLOR);
+                g.drawString(name, x + (w - fm.stringWidth(name)) / 2, y + textDy);
+            }
+            // 이 픽셀 줄의 8 레인이 다 찼으면 다음 줄(더 뒤의 tick)로 건너뛴다
+            if (lineMask == ALL_LANES) {
+                long next = (long) Math.floor(scale.yToTick(yBottom - 0.5)) + 1;
+                if (next > tick + 1) i = chart.ceilIndex(next) - 1;
+            }
+        }
+
+        // 레인 구분선 / 격자선 또는 행 구분선 (너무 촘촘하면 생략)
+        g.setColor(GRID_COLOR);
+        for (int lane = 1; lane <= NoteChart.COLUMN_COUNT; lane++) {
+            g.drawLine(laneX[lane] - 1, clip.y, laneX[lane] - 1, clip.y + clip.height);
+        }
+        if (grid != null) {
+            if (grid.stepTicks() * ppt >= MIN_GRID_SPACING) {
+                int resolution = grid.getResolution();
+                long last = grid.lineIndex(toTick);
+                for (long n = grid.lineIndex(Math.max(0, (long) Math.floor(scale.yToTick(clip.y + clip.height)))); n <= last; n++) {
+                    long t = grid.lineTick(n);
+                    int y = (int) Math.round(scale.tickToY(t)) - 1;
+                    g.setColor(t % resolution == 0 ? BEAT_COLOR : GRID_COLOR);
+                    g.drawLine(clip.x, y, clip.x + clip.width, y);
+                }
+            }
+        } else if (tpr * ppt >= MIN_GRID_SPACING) {
+            long firstRowTick = Math.floorDiv((long) Math.floor(scale.yToTick(clip.y + clip.height)), tpr) * tpr;
+            for (long t = firstRowTick; t <= toTick; t += tpr) {
+                int y = (int) Math.round(scale.tickToY(t)) - 1;
+                g.drawLine(clip.x, y, clip.x + clip.width, y);
+            }
+        }
+    }
+
+    // 롱노트 i 의 몸통: 머리 위쪽부터 holdEnd 까지, 레인 가운데 절반 폭. 이미 칠한 부분(holdTop 아래)은 건너뛴다
+    private void paintHold(Graphics g, NoteChart chart, int i, int rowH) {
+        long tick = chart.tickAt(i);
+        int lane = chart.laneAt(i);
+        int bottom = Math.min(holdTop[lane], (int) Math.round(scale.tickToY(tick)) - rowH);
+        int top = (int) Math.round(scale.tickToY(chart.holdEnd(i)));
+        if (top >= bottom) return;
+        holdTop[lane] = top;
+        boolean selected = selection != null && selection.contains(tick, lane);
+        int x = laneX[lane], w = laneX[lane + 1] - x;
+        g.setColor(NoteCellRenderer.holdColor(lane, chart.pitchAt(i), selected));
+        g.fillRect(x + w / 4, top, w - w / 2, bottom - top);
+    }
+
+    // 비트 구간 [fromBit, toBit) = 행(slot) 여러 개에 걸친 레인 구간: 앞뒤의 잘린 행과 가운데 꽉 찬 행들로 나눠 칠한다
+    private void paintSelectionRun(int fromBit, int toBit) {
+        int lanes = NoteChart.COLUMN_COUNT;
+        long firstSlot = fromBit / lanes, lastSlot = (toBit - 1) / lanes;
+        int firstLane = fromBit % lanes, lastLane = (toBit - 1) % lanes;
+        if (firstSlot == lastSlot) { fillSlots(firstSlot, firstSlot, firstLane, lastLane); return; }
+        long fullFrom = firstLane == 0 ? firstSlot : firstSlot + 1;
+        long fullTo = lastLane == lanes - 1 ? lastSlot : lastSlot - 1;
+        if (firstLane != 0) fillSlots(firstSlot, firstSlot, firstLane, lanes - 1);
+        if (fullFrom <= fullTo) fillSlots(fullFrom, fullTo, 0, lanes - 1);
+        if (lastLane != lanes - 1) fillSlots(lastSlot, lastSlot, 0, lastLane);
+    }
+
+    // 행 fromSlot..toSlot x 레인 fromLane..toLane
+    private void fillSlots(long fromSlot, long toSlot, int fromLane, int toLane) {
+        int tpr = model.getTicksPerRow();
+        int top = (int) Math.round(scale.tickToY((toSlot + 1) * tpr));
+        int bottom = (int) Math.round(scale.tickToY(fromSlot * tpr));
+        int x = laneX[fromLane];
+        runGraphics.fillRect(x, top, laneX[toLane + 1] - x, Math.max(bottom - top, MIN_NOTE_HEIGHT));
+    }
+
+    // --- Scrollable ---
+    @Override public Dimension getPreferredScrollableViewportSize() { return getPreferredSize(); }
+
+    @Override public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? Math.max(1, (int) Math.round(scale.rowPixels())) : 10;
+    }
+
+    @Override public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override public boolean getScrollableTracksViewportWidth() { return false; }
+    @Override public boolean getScrollableTracksViewportHeight() { return false; }
+}
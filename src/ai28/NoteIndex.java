@@ -0,0 +1,167 @@
+package ai28;
+
+import java.util.Arrays;
+
+// --- 노트 위치 색인: 레인별 / 음 높이별 / 화음 ---
+// NoteChart 의 키 배열은 (tick, lane) 순이라 "레인 J 의 다음 노트" 나 "C4 의 다음 노트" 는 끝까지 훑어야 할 수 있다.
+// 그래서 레인마다, 음 높이마다 그 노트들의 키만 정렬해 따로 들고, 노트가 둘 이상인 tick(화음) 도 따로 들어
+// 다음/이전 찾기를 이진 탐색 한 번으로 끝낸다. [추가] 롱노트(길이 > 0) 의 키도 따로 들어 보이는 구간의 롱노트만 훑는다.
+// NoteChart 가 처음 찾을 때 한 번 만들고, 이후 put/remove 마다 해당 배열만 고치며 큰 일괄 반영 뒤에는 다시 만든다.
+// 수정은 NoteChart 의 잠금 안에서만 일어난다 (읽기는 수정과 같은 EDT 에서).
+final class NoteIndex {
+    static final int PITCHES = 128;
+
+    // 정렬된 long 집합 (중복 없음)
+    private static final class Keys {
+        long[] a;
+        int n;
+
+        Keys(int capacity) { a = new long[Math.max(4, capacity)]; }
+
+        private int ceil(long v) {
+            int i = Arrays.binarySearch(a, 0, n, v);
+            return i >= 0 ? i : -i - 1;
+        }
+
+        void add(long v) {
+            int i = Arrays.binarySearch(a, 0, n, v);
+            if (i >= 0) return;
+            i = -i - 1;
+            if (n == a.length) a = Arrays.copyOf(a, n + (n >> 1) + 4);
+            System.arraycopy(a, i, a, i + 1, n - i);
+            a[i] = v;
+            n++;
+        }
+
+        void remove(long v) {
+            int i = Arrays.binarySearch(a, 0, n, v);
+            if (i < 0) return;
+            System.arraycopy(a, i + 1, a, i, n - i - 1);
+            n--;
+        }
+
+        // v 보다 큰 첫 값 / v 보다 작은 마지막 값 (없으면 -1)
+        long after(long v) {
+            int i = ceil(v + 1);
+            return i < n ? a[i] : -1;
+        }
+
+        long before(long v) {
+            int i = ceil(v);
+            return i > 0 ? a[i - 1] : -1;
+        }
+    }
+
+    private final NoteChart chart;
+    private final Keys[] lanes = new Keys[NoteChart.COLUMN_COUNT];
+    private final Keys[] pitches = new Keys[PITCHES];
+    // 노트가 둘 이상인 tick
+    private Keys chords;
+    // 롱노트 키
+    private Keys holds;
+
+    NoteIndex(NoteChart chart) {
+        this.chart = chart;
+        rebuild();
+    }
+
+    // 차트 배열을 한 번 훑어 전부 다시 만든다: 개수를 세서 정확한 크기로 잡은 뒤 키 순서대로 채운다
+    void rebuild() {
+        int n = chart.size();
+        int[] laneCount = new int[lanes.length], pitchCount = new int[PITCHES];
+        int chordCount = 0, holdCount = 0;
+        for (int i = 0; i < n; i++) {
+            laneCount[chart.laneAt(i)]++;
+            pitchCount[chart.pitchAt(i)]++;
+            if (chart.durationAt(i) > 0) holdCount++;
+            if (i > 0 && chart.tickAt(i) == chart.tickAt(i - 1) && (i < 2 || chart.tickAt(i - 2) != chart.tickAt(i))) chordCount++;
+        }
+        for (int l = 0; l < lanes.length; l++) lanes[l] = new Keys(laneCount[l] + (laneCount[l] >> 4));
+        for (int p = 0; p < PITCHES; p++) pitches[p] = new Keys(pitchCount[p] + (pitchCount[p] >> 4));
+        chords = new Keys(chordCount + (chordCount >> 4));
+        holds = new Keys(holdCount + (holdCount >> 4));
+        for (int i = 0; i < n; i++) {
+            long key = chart.keyAt(i);
+            append(lanes[chart.laneAt(i)], key);
+            append(pitches[chart.pitchAt(i)], key);
+            if (chart.durationAt(i) > 0) append(holds, key);
+            long tick = chart.tickAt(i);
+            if (i > 0 && chart.tickAt(i - 1) == tick && (chords.n == 0 || chords.a[chords.n - 1] != tick)) append(chords, tick);
+        }
+    }
+
+    private static void append(Keys keys, long v) {
+        if (keys.n == keys.a.length) keys.a = Arrays.copyOf(keys.a, keys.n + (keys.n >> 1) + 4);
+        keys.a[keys.n++] = v;
+    }
+
+    // --- NoteChart 가 수정할 때 부른다 (셀 = pitch / velocity / 길이) ---
+    void added(long key, int cell) {
+        lanes[NoteChart.laneOf(key)].add(key);
+        pitches[NoteChart.cellPitch(cell)].add(key);
+        if (NoteChart.cellDuration(cell) > 0) holds.add(key);
+        tickChanged(NoteChart.tickOf(key));
+    }
+
+    void removed(long key, int cell) {
+        lanes[NoteChart.laneOf(key)].remove(key);
+        pitches[NoteChart.cellPitch(cell)].remove(key);
+        holds.remove(key);
+        tickChanged(NoteChart.tickOf(key));
+    }
+
+    void changed(long key, int oldCell, int newCell) {
+        int oldPitch = NoteChart.cellPitch(oldCell), newPitch = NoteChart.cellPitch(newCell);
+        if (oldPitch != newPitch) {
+            pitches[oldPitch].remove(key);
+            pitches[newPitch].add(key);
+        }
+        if (NoteChart.cellDuration(newCell) > 0) holds.add(key); else holds.remove(key);
+    }
+
+    private void tickChanged(long tick) {
+        if (Integer.bitCount(chart.laneMask(tick)) >= 2) chords.add(tick); else chords.remove(tick);
+    }
+
+    // --- 찾기: 모두 O(log n). 노트는 키(없으면 -1), 화음은 tick(없으면 -1) 을 돌려준다 ---
+
+    // tick 보다 뒤 / 앞의 아무 레인 노트
+    long nextNote(long tick) {
+        int i = chart.ceilIndex(tick + 1);
+        return i < chart.size() ? chart.keyAt(i) : -1;
+    }
+
+    long previousNote(long tick) {
+        int i = chart.ceilIndex(tick);
+        return i > 0 ? chart.keyAt(i - 1) : -1;
+    }
+
+    long nextInLane(int lane, long tick) { return lanes[lane].after(lastKeyAt(tick)); }
+    long previousInLane(int lane, long tick) { return lanes[lane].before(NoteChart.key(tick, 0)); }
+
+    long nextWithPitch(int pitch, long tick) { return pitches[pitch].after(lastKeyAt(tick)); }
+    long previousWithPitch(int pitch, long tick) { return pitches[pitch].before(NoteChart.key(tick, 0)); }
+
+    long nextChord(long tick) { return chords.after(tick); }
+    long previousChord(long tick) { return chords.before(tick); }
+
+    // 키 key 보다 뒤의 첫 롱노트 키 (없으면 -1). key(tick, 0) - 1 에서 시작하면 tick 부터 차례로 돈다
+    long nextHold(long key) { return holds.after(key); }
+
+    // lane 에서 tick 보다 앞에 시작해 tick 을 지나도록 누르고 있는 롱노트의 차트 인덱스 (없으면 -1).
+    // 같은 레인의 바로 앞 노트만 보면 된다: 그보다 앞의 롱노트는 그 노트에서 끝났다
+    int holdCovering(int lane, long tick) {
+        long key = lanes[lane].before(NoteChart.key(tick, 0));
+        if (key < 0) return -1;
+        int i = chart.indexOf(NoteChart.tickOf(key), lane);
+        return i >= 0 && chart.tickAt(i) + chart.durationAt(i) > tick ? i : -1;
+    }
+
+    int countInLane(int lane) { return lanes[lane].n; }
+    int countWithPitch(int pitch) { return pitches[pitch].n; }
+    int chordCount() { return chords.n; }
+    int holdCount() { return holds.n; }
+
+    // tick 의 마지막 레인 키 (tick 이 음수면 모든 키보다 작은 값)
+    private static long lastKeyAt(long tick) { return tick < 0 ? -1 : NoteChart.key(tick, NoteChart.COLUMN_COUNT - 1); }
+}
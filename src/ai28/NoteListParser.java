@@ -0,0 +1,219 @@
+package ai28;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// --- 노트 목록 텍스트 가져오기 ({"pitch":..,"t":..} 한 줄에 하나, [추가] 롱노트는 "dur":.. 도) ---
+// ChartExporter / 옛 saveTableToTxt 가 쓰는 형식을 바이트 단위로 직접 읽는다.
+// 줄이나 필드마다 String 을 만들지 않고 큰 버퍼 하나를 돌려 쓰며, 결과는 LaneAllocator 로 바로 들어간다.
+// 허용: 줄 끝 쉼표, "name" 등 모르는 필드(무시), JSON 배열의 '[' / ']' 줄, 빈 줄, CRLF, UTF-8 BOM.
+// 형식이 틀린 줄은 건너뛰고 개수와 앞쪽 MAX_ERRORS 개의 위치/이유만 남긴다.
+class NoteListParser {
+    static final int MAX_ERRORS = 20;
+    static final int VELOCITY = NoteChart.DEFAULT_VELOCITY;
+    static final int RESOLUTION = 480;
+
+    private static final int BUFFER_BYTES = 1 << 18;
+    private static final int OK = 0, SKIP = 1;
+    private static final String[] REASONS = {
+        null, null, "'{' 가 없음", "키 형식 오류", "':' 가 없음", "숫자 형식 오류",
+        "문자열이 닫히지 않음", "'}' 가 없음", "'}' 뒤에 다른 내용", "pitch 또는 t 가 없음", "pitch 범위 초과", "줄이 너무 김"
+    };
+    private static final int ERR_OPEN = 2, ERR_KEY = 3, ERR_COLON = 4, ERR_NUMBER = 5, ERR_STRING = 6,
+                             ERR_CLOSE = 7, ERR_TRAILING = 8, ERR_MISSING = 9, ERR_PITCH = 10, ERR_LONG_LINE = 11;
+    private static final byte[] KEY_PITCH = {'p', 'i', 't', 'c', 'h'};
+    private static final byte[] KEY_T = {'t'};
+    private static final byte[] KEY_DUR = {'d', 'u', 'r'};
+
+    private final LaneAllocator.Policy lanePolicy;
+    private final byte[] buf = new byte[BUFFER_BYTES];
+    private final List<String> errors = new ArrayList<>();
+    private int malformed, displaced, dropped;
+    private long lineCount;
+
+    // parseLine 결과 (할당 없이 돌려주기 위한 필드)
+    private int pitch;
+    private long tick, duration;
+    private int pos;
+
+    NoteListParser() { this(LaneAllocator.NEAREST_FREE); }
+
+    NoteListParser(LaneAllocator.Policy lanePolicy) { this.lanePolicy = lanePolicy; }
+
+    static boolean isNoteList(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".txt") || name.endsWith(".json") || name.endsWith(".jsonl");
+    }
+
+    int getMalformedCount() { return malformed; }
+    int getDisplaced() { return displaced; }
+    int getDropped() { return dropped; }
+    long getLineCount() { return lineCount; }
+    List<String> getErrors() { return errors; }
+
+    // 취소되면 null
+    MidiChartReader.Result read(Path path, MidiChartReader.Listener listener) throws IOException {
+        NoteChart chart = parse(path, listener);
+        if (chart == null) return null;
+        TempoMap tempoMap = TempoMap.constant(RESOLUTION, TempoMap.DEFAULT_MPQ);
+        return new MidiChartReader.Result(ChartFile.toSequence(chart, tempoMap), chart, tempoMap, displaced, dropped);
+    }
+
+    NoteChart parse(Path path, MidiChartReader.Listener listener) throws IOException {
+        errors.clear();
+        malformed = 0;
+        lineCount = 0;
+        LaneAllocator builder = new LaneAllocator(lanePolicy);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long total = Math.max(1, ch.size()), read = 0;
+            ByteBuffer bb = ByteBuffer.wrap(buf);
+            int lastPercent = -1;
+            boolean eof = false, first = true, skippingLongLine = false;
+            while (!eof) {
+                int n = ch.read(bb);
+                if (n < 0) eof = true; else read += n;
+                int limit = bb.position(), start = 0;
+                if (first && limit >= 3 && buf[0] == (byte) 0xEF && buf[1] == (byte) 0xBB && buf[2] == (byte) 0xBF) start = 3;
+                first = false;
+                while (true) {
+                    int nl = indexOf(buf, start, limit, (byte) '\n');
+                    if (nl < 0) {
+                        if (!eof || start == limit) break;
+                        nl = limit; // 마지막 줄에 줄바꿈이 없는 경우
+                    }
+                    lineCount++;
+                    if (skippingLongLine) skippingLongLine = false;
+                    else accept(builder, parseLine(buf, start, nl > start && buf[nl - 1] == '\r' ? nl - 1 : nl));
+                    start = Math.min(nl + 1, limit);
+                    if (nl == limit) break;
+                }
+                // 남은 미완성 줄을 앞으로 당긴다. 버퍼 전체가 한 줄이면 그 줄은 버린다
+                if (start == 0 && limit == buf.length) {
+                    if (!skippingLongLine) error(lineCount + 1, ERR_LONG_LINE);
+                    skippingLongLine = true;
+                    bb.clear();
+                } else {
+                    System.arraycopy(buf, start, buf, 0, limit - start);
+                    bb.position(limit - start).limit(buf.length);
+                }
+                if (listener.isCancelled()) return null;
+                int percent = (int) (read * 100 / total);
+                if (percent != lastPercent) listener.progress(lastPercent = percent);
+            }
+        }
+        NoteChart chart = builder.build();
+        displaced = builder.getDisplaced();
+        dropped = builder.getDropped();
+        return chart;
+    }
+
+    private void accept(LaneAllocator builder, int code) {
+        if (code == OK) {
+            int index = builder.add(tick, pitch, VELOCITY);
+            if (duration > 0) builder.setDuration(index, duration);
+        } else if (code != SKIP) {
+            error(lineCount, code);
+        }
+    }
+
+    private void error(long line, int code) {
+        malformed++;
+        if (errors.size() < MAX_ERRORS) errors.add("줄 " + line + ": " + REASONS[code]);
+    }
+
+    private static int indexOf(byte[] b, int from, int to, byte v) {
+        for (int i = from; i < to; i++) if (b[i] == v) return i;
+        return -1;
+    }
+
+    // [from, to) 한 줄을 읽어 pitch / tick 에 넣는다
+    private int parseLine(byte[] b, int from, int to) {
+        pos = skipWs(b, from, to);
+        if (pos == to) return SKIP;
+        // JSON 배열의 괄호 줄
+        if (b[pos] == '[' || b[pos] == ']') {
+            int p = skipWs(b, pos + 1, to);
+            if (p < to && b[p] == ',') p = skipWs(b, p + 1, to);
+            return p == to ? SKIP : ERR_OPEN;
+        }
+        if (b[pos] != '{') return ERR_OPEN;
+        pos++;
+        pitch = -1;
+        tick = -1;
+        duration = 0;
+        while (true) {
+            pos = skipWs(b, pos, to);
+            if (pos < to && b[pos] == '}') break;
+            if (pos >= to || b[pos] != '"') return ERR_KEY;
+            int keyStart = ++pos;
+            while (pos < to && b[pos] != '"') pos++;
+            if (pos >= to) return ERR_KEY;
+            int keyEnd = pos++;
+            pos = skipWs(b, pos, to);
+            if (pos >= to || b[pos] != ':') return ERR_COLON;
+            pos = skipWs(b, pos + 1, to);
+            int code;
+            if (equals(b, keyStart, keyEnd, KEY_PITCH)) {
+                long v = parseNumber(b, to);
+                if (v < 0) return ERR_NUMBER;
+                if (v > 127) return ERR_PITCH;
+                pitch = (int) v;
+            } else if (equals(b, keyStart, keyEnd, KEY_T)) {
+                if ((tick = parseNumber(b, to)) < 0) return ERR_NUMBER;
+            } else if (equals(b, keyStart, keyEnd, KEY_DUR)) {
+                if ((duration = parseNumber(b, to)) < 0) return ERR_NUMBER;
+            } else if ((code = skipValue(b, to)) != OK) {
+                return code;
+            }
+            pos = skipWs(b, pos, to);
+            if (pos < to && b[pos] == ',') { pos++; continue; }
+            if (pos < to && b[pos] == '}') break;
+            return ERR_CLOSE;
+        }
+        pos = skipWs(b, pos + 1, to);
+        if (pos < to && b[pos] == ',') pos = skipWs(b, pos + 1, to);
+        if (pos != to) return ERR_TRAILING;
+        return pitch < 0 || tick < 0 ? ERR_MISSING : OK;
+    }
+
+    // 0 이상의 정수. 형식이 틀리면 -1
+    private long parseNumber(byte[] b, int to) {
+        int start = pos;
+        long v = 0;
+        while (pos < to && b[pos] >= '0' && b[pos] <= '9') {
+            v = v * 10 + (b[pos++] - '0');
+            if (v > NoteChart.MAX_TICK) return -1;
+        }
+        return pos == start ? -1 : v;
+    }
+
+    // 모르는 필드의 값: 문자열이면 닫는 따옴표까지, 아니면 ',' 나 '}' 직전까지
+    private int skipValue(byte[] b, int to) {
+        if (pos < to && b[pos] == '"') {
+            pos++;
+            while (pos < to && b[pos] != '"') pos += b[pos] == '\\' ? 2 : 1;
+            if (pos >= to) return ERR_STRING;
+            pos++;
+            return OK;
+        }
+        int start = pos;
+        while (pos < to && b[pos] != ',' && b[pos] != '}') pos++;
+        return pos == start ? ERR_NUMBER : OK;
+    }
+
+    private static int skipWs(byte[] b, int from, int to) {
+        while (from < to && (b[from] == ' ' || b[from] == '\t')) from++;
+        return from;
+    }
+
+    private static boolean equals(byte[] b, int from, int to, byte[] key) {
+        if (to - from != key.length) return false;
+        for (int i = 0; i < key.length; i++) if (b[from + i] != key[i]) return false;
+        return true;
+    }
+}
@@ -0,0 +1,130 @@
+package ai28;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.Receiver;
+import javax.sound.midi.ShortMessage;
+
+// --- 미리 듣기 노트의 NOTE_OFF 를 한 곳에서 처리 ---
+// 노트마다 Swing Timer 를 만들지 않고, 꺼야 할 시각을 기본형 힙(우선순위 큐)에 넣어 두면
+// 전용 스레드 하나가 가장 이른 시각까지 잠들었다가 순서대로 끈다. EDT 는 건드리지 않는다.
+// 메시지 객체는 재사용하므로 노트당 할당이 없다.
+class NoteOffScheduler {
+    private static final int CHANNEL = 0;
+
+    private final Receiver receiver;
+    private final ShortMessage onMsg = new ShortMessage();
+    private final ShortMessage offMsg = new ShortMessage();
+
+    // 최소 힙: 꺼야 할 시각(nanoTime) / pitch
+    private long[] due = new long[64];
+    private int[] pitches = new int[64];
+    private int size;
+    // 같은 pitch 를 다시 누르면 이전 OFF 가 새 노트를 자르지 않도록 마지막 OFF 시각만 유효
+    private final long[] latestOff = new long[128];
+
+    private volatile boolean running = true;
+    private final Thread thread;
+
+    NoteOffScheduler(Receiver receiver) {
+        this.receiver = receiver;
+        thread = new Thread(this::loop, "note-off-scheduler");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    // NOTE_ON 을 바로 보내고 durationMillis 뒤의 NOTE_OFF 를 예약
+    void play(int pitch, int velocity, int durationMillis) {
+        long off = System.nanoTime() + durationMillis * 1_000_000L;
+        synchronized (onMsg) {
+            try {
+                onMsg.setMessage(ShortMessage.NOTE_ON, CHANNEL, pitch, velocity);
+                receiver.send(onMsg, -1);
+            } catch (InvalidMidiDataException e) { return; }
+        }
+        boolean newHead;
+        synchronized (this) {
+            latestOff[pitch] = off;
+            push(off, pitch);
+            newHead = due[0] == off;
+        }
+        if (newHead) LockSupport.unpark(thread);
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    private void loop() {
+        while (running) {
+            long wait;
+            int pitch = -1;
+            synchronized (this) {
+                if (size == 0) {
+                    wait = -1;
+                } else {
+                    long now = System.nanoTime();
+                    long head = due[0];
+                    if (head <= now) {
+                        pitch = pitches[0];
+                        pop();
+                        // 더 늦은 OFF 가 예약돼 있으면 이번 것은 건너뛴다
+                        if (latestOff[pitch] > head) pitch = -1;
+                        wait = 0;
+                    } else {
+                        wait = head - now;
+                    }
+                }
+            }
+            if (pitch >= 0) sendOff(pitch);
+            else if (wait < 0) LockSupport.park(this);
+            else if (wait > 0) LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    private void sendOff(int pitch) {
+        try {
+            offMsg.setMessage(ShortMessage.NOTE_OFF, CHANNEL, pitch, 0);
+            receiver.send(offMsg, -1);
+        } catch (InvalidMidiDataException e) { /* pitch 는 항상 0~127 */ }
+    }
+
+    // --- 이진 힙 ---
+    private void push(long t, int p) {
+        if (size == due.length) {
+            due = Arrays.copyOf(due, size * 2);
+            pitches = Arrays.copyOf(pitches, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (due[parent] <= t) break;
+            due[i] = due[parent];
+            pitches[i] = pitches[parent];
+            i = parent;
+        }
+        due[i] = t;
+        pitches[i] = p;
+    }
+
+    private void pop() {
+        long t = due[--size];
+        int p = pitches[size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && due[child + 1] < due[child]) child++;
+            if (due[child] >= t) break;
+            due[i] = due[child];
+            pitches[i] = pitches[child];
+            i = child;
+        }
+        due[i] = t;
+        pitches[i] = p;
+    }
+}
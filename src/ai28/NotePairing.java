@@ -0,0 +1,49 @@
+package ai28;
+
+import java.util.Arrays;
+
+// --- NOTE_ON / NOTE_OFF 짝 맞추기: 가져올 때 롱노트 길이를 정한다 ---
+// (채널, pitch) 마다 기본형 스택(int 배열) 하나. NOTE_ON 이면 LaneAllocator 에 넣은 노트 번호를 쌓고,
+// NOTE_OFF (또는 velocity 0 인 NOTE_ON) 이면 가장 최근 것을 꺼내 길이를 정한다. 이벤트당 O(1) 이라 트랙을 한 번만 훑는다.
+// minHoldTicks 보다 짧게 누른 노트와 짝이 없는 NOTE_ON 은 치는 노트(길이 0) 로 둔다.
+final class NotePairing {
+    private static final int SLOTS = 16 * 128;
+
+    private final LaneAllocator lanes;
+    private final long minHoldTicks;
+    // [채널 << 7 | pitch] 의 스택 (처음 쓸 때 만든다) / 깊이
+    private final int[][] stacks = new int[SLOTS][];
+    private final int[] depth = new int[SLOTS];
+    private int holds;
+
+    NotePairing(LaneAllocator lanes, long minHoldTicks) {
+        this.lanes = lanes;
+        this.minHoldTicks = Math.max(1, minHoldTicks);
+    }
+
+    LaneAllocator lanes() { return lanes; }
+    int holdCount() { return holds; }
+
+    void noteOn(long tick, int channel, int pitch, int velocity) {
+        int index = lanes.add(tick, pitch, velocity);
+        int slot = (channel & 0x0F) << 7 | (pitch & 0x7F);
+        int[] stack = stacks[slot];
+        if (stack == null) stack = stacks[slot] = new int[4];
+        else if (depth[slot] == stack.length) stack = stacks[slot] = Arrays.copyOf(stack, stack.length * 2);
+        stack[depth[slot]++] = index;
+    }
+
+    void noteOff(long tick, int channel, int pitch) {
+        int slot = (channel & 0x0F) << 7 | (pitch & 0x7F);
+        if (depth[slot] == 0) return;
+        int index = stacks[slot][--depth[slot]];
+        long duration = tick - lanes.tickAt(index);
+        if (duration >= minHoldTicks) {
+            lanes.setDuration(index, duration);
+            holds++;
+        }
+    }
+
+    // 트랙이 끝나면 남은 NOTE_ON 은 치는 노트로 두고 비운다 (짝은 트랙 안에서만 맞춘다)
+    void endTrack() { Arrays.fill(depth, 0); }
+}
@@ -0,0 +1,47 @@
+package ai28;
+
+import java.util.function.Supplier;
+
+import javax.sound.midi.Sequencer;
+
+// --- 재생 위치 보간 ---
+// Sequencer 의 위치 값은 몇 ms 단위로 뚝뚝 끊겨 올라오므로 그대로 쓰면 스크롤이 떨린다.
+// 마지막 기준점(µs, nanoTime)에서 흐른 시간을 더해 매 프레임 위치를 계산하고,
+// 실제 값과 많이 벌어질 때만 기준점을 다시 잡는다. tick 변환은 템포 맵을 따른다.
+// 인스턴스 하나는 한 스레드에서만 쓴다 (화면용, 소리용 따로 만든다).
+class PlaybackClock {
+    private static final long RESYNC_MICROS = 15_000;
+
+    private final Sequencer sequencer;
+    private final Supplier<TempoMap> tempoMap;
+    private long anchorMicros, anchorNanos;
+    private boolean anchored;
+
+    PlaybackClock(Sequencer sequencer, Supplier<TempoMap> tempoMap) {
+        this.sequencer = sequencer;
+        this.tempoMap = tempoMap;
+    }
+
+    void reset() { anchored = false; }
+
+    TempoMap tempoMap() { return tempoMap.get(); }
+
+    long positionMicros(long nowNanos) {
+        long actual = sequencer.getMicrosecondPosition();
+        if (!anchored) { anchor(actual, nowNanos); return actual; }
+        long predicted = anchorMicros + (nowNanos - anchorNanos) / 1000;
+        if (Math.abs(actual - predicted) > RESYNC_MICROS) { anchor(actual, nowNanos); return actual; }
+        return predicted;
+    }
+
+    // 보간된 tick (소수점 포함, 부드러운 스크롤용)
+    double tickAt(long nowNanos) {
+        return tempoMap.get().microsToTick(positionMicros(nowNanos));
+    }
+
+    private void anchor(long micros, long nowNanos) {
+        anchorMicros = micros;
+        anchorNanos = nowNanos;
+        anchored = true;
+    }
+}
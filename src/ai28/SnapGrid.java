@@ -0,0 +1,113 @@
+package ai28;
+
+import java.util.Arrays;
+
+// --- 격자 맞추기 (스냅) ---
+// 노트는 정확한 tick 으로 저장하고, 격자는 보여 주기 / 다시 맞추기(requantize) 에만 쓴다.
+// 격자 간격은 온음표의 1/division: 1/4 ~ 1/128, 셋잇단이면 그 2/3 (1/6 ~ 1/192).
+// 간격이 정수 tick 으로 안 떨어지는 해상도도 있으므로 (4 * resolution) / division 을 분수 그대로 계산한다.
+final class SnapGrid {
+    static final int[] DIVISIONS = {4, 8, 16, 32, 64, 128};
+
+    private final int resolution;
+    private final int division;
+    private final boolean triplet;
+    // 간격 = num / den tick
+    private final long num, den;
+
+    SnapGrid(int resolution, int division, boolean triplet) {
+        this.resolution = resolution;
+        this.division = division;
+        this.triplet = triplet;
+        this.num = 4L * resolution * (triplet ? 2 : 1);
+        this.den = (long) division * (triplet ? 3 : 1);
+    }
+
+    int getResolution() { return resolution; }
+    int getDivision() { return division; }
+    boolean isTriplet() { return triplet; }
+
+    // 셋잇단이면 실제 분모 (1/16 셋잇단 = 1/24)
+    int effectiveDivision() { return triplet ? division * 3 / 2 : division; }
+
+    double stepTicks() { return (double) num / den; }
+
+    SnapGrid withResolution(int resolution) { return new SnapGrid(resolution, division, triplet); }
+    SnapGrid withTriplet(boolean triplet) { return new SnapGrid(resolution, division, triplet); }
+
+    // delta 칸만큼 더 촘촘하게(+) / 성기게(-). 끝에서는 그대로
+    SnapGrid finer(int delta) {
+        int i = Arrays.binarySearch(DIVISIONS, division);
+        int j = Math.max(0, Math.min(DIVISIONS.length - 1, (i < 0 ? 2 : i) + delta));
+        return new SnapGrid(resolution, DIVISIONS[j], triplet);
+    }
+
+    // n 번째 격자선의 tick (내림)
+    long lineTick(long n) { return n * num / den; }
+
+    // tick 이하의 마지막 격자선 번호
+    long lineIndex(long tick) { return (tick * den) / num; }
+
+    // 가장 가까운 격자선 (가운데면 뒤쪽)
+    long snap(long tick) { return lineTick((tick * den + num / 2) / num); }
+
+    @Override public String toString() { return "1/" + effectiveDivision() + (triplet ? " 셋잇단" : ""); }
+
+    // --- 다시 맞추기: [fromTick, toTick) 의 노트를 가장 가까운 격자선으로 옮기는 편집 하나 ---
+    // Swing 을 거치지 않고 차트 배열만 훑는다. 옮길 노트를 모아 새 키 순으로 한 번 정렬한 뒤
+    // 같은 자리에 여럿이 오면 격자에 가장 가까웠던 노트 하나만 남기고, 움직이지 않는 노트가 이미 있으면 그 노트를 남긴다.
+    // 기록 순서는 '옮길 노트 전부 지우기 -> 새 자리에 넣기' 이므로 ChartEdit 의 적용/취소 순서 규칙으로 한 번에 되돌려진다.
+    ChartEdit requantize(NoteChart chart, long fromTick, long toTick) {
+        int lo = chart.ceilIndex(Math.max(0, fromTick));
+        return requantize(chart, null, lo, chart.ceilIndex(toTick) - lo);
+    }
+
+    // [추가] 고른 노트만 (ChartSelection.selectedIndices: 오름차순 차트 인덱스). 선택 밖의 노트는 움직이지 않는다
+    ChartEdit requantize(NoteChart chart, int[] indices) { return requantize(chart, indices, 0, indices.length); }
+
+    // indices 가 null 이면 차트 인덱스 lo 부터 n 개, 아니면 indices[lo..lo+n)
+    private ChartEdit requantize(NoteChart chart, int[] indices, int lo, int n) {
+        long[] oldKeys = new long[n];
+        long[] newKeys = new long[n];
+        int[] cells = new int[n];
+        long[] distance = new long[n];
+        int m = 0;
+        for (int j = lo; j < lo + n; j++) {
+            int i = indices == null ? j : indices[j];
+            long tick = chart.tickAt(i);
+            long snapped = Math.min(snap(tick), NoteChart.MAX_TICK);
+            if (snapped == tick) continue;
+            oldKeys[m] = chart.keyAt(i);
+            newKeys[m] = NoteChart.key(snapped, chart.laneAt(i));
+            cells[m] = chart.cellAt(i);
+            distance[m] = Math.abs(snapped - tick);
+            m++;
+        }
+
+        ChartEdit edit = new ChartEdit("격자 맞추기 " + this);
+        if (m == 0) return edit;
+        // 지우기 (oldKeys 는 차트 순서라 이미 정렬돼 있다)
+        for (int k = 0; k < m; k++) edit.record(NoteChart.tickOf(oldKeys[k]), NoteChart.laneOf(oldKeys[k]), cells[k], NoteChart.EMPTY);
+
+        // 새 키 순서: (newKey << 24 | k) 를 정렬 (LaneAllocator 와 같은 방식)
+        if (m > 1 << 24) throw new IllegalStateException("노트 수 초과: " + m);
+        long[] order = new long[m];
+        for (int k = 0; k < m; k++) order[k] = (newKeys[k] << 24) | k;
+        Arrays.sort(order);
+        for (int a = 0; a < m; ) {
+            long key = newKeys[(int) (order[a] & 0xFFFFFF)];
+            int best = -1, b = a;
+            for (; b < m && newKeys[(int) (order[b] & 0xFFFFFF)] == key; b++) {
+                int k = (int) (order[b] & 0xFFFFFF);
+                if (best < 0 || distance[k] < distance[best]) best = k;
+            }
+            a = b;
+            long tick = NoteChart.tickOf(key);
+            int lane = NoteChart.laneOf(key);
+            // 자리에 있던 노트가 이번에 옮겨지는 노트가 아니면 그대로 둔다
+            if (chart.indexOf(tick, lane) >= 0 && Arrays.binarySearch(oldKeys, 0, m, key) < 0) continue;
+            edit.record(tick, lane, NoteChart.EMPTY, cells[best]);
+        }
+        return edit;
+    }
+}
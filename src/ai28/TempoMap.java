@@ -0,0 +1,125 @@
+package ai28;
+
+import java.util.Arrays;
+
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.Track;
+
+// --- 템포 맵: tick <-> µs 변환 ---
+// 모든 트랙의 템포 이벤트(0x51)를 모아 구간 표를 미리 만들어 둔다.
+// 구간 i 는 segTick[i] 부터 시작하고 그 시점의 누적 시간이 segMicros[i], 템포가 segMpq[i].
+// 변환은 구간 표 이진 탐색 한 번: O(log n). 만들고 나면 바뀌지 않으므로 여러 스레드에서 써도 된다.
+final class TempoMap {
+    static final int DEFAULT_MPQ = 500_000; // 120 BPM
+
+    private final int resolution;
+    private final long[] segTick;
+    private final long[] segMicros;
+    private final int[] segMpq;
+
+    private TempoMap(int resolution, long[] segTick, long[] segMicros, int[] segMpq) {
+        this.resolution = resolution;
+        this.segTick = segTick;
+        this.segMicros = segMicros;
+        this.segMpq = segMpq;
+    }
+
+    static TempoMap constant(int resolution, int mpq) {
+        return new TempoMap(resolution, new long[]{0}, new long[]{0}, new int[]{mpq});
+    }
+
+    // 한 박('4분음표') 의 tick 수. SMPTE 는 tick 길이가 고정 (초당 frames * resolution tick) 이므로 1초를 한 박으로 둔다
+    static int beatTicks(Sequence seq) {
+        return seq.getDivisionType() == Sequence.PPQ ? seq.getResolution() : Math.round(seq.getDivisionType() * seq.getResolution());
+    }
+
+    static TempoMap fromSequence(Sequence seq) {
+        if (seq.getDivisionType() != Sequence.PPQ) return constant(beatTicks(seq), 1_000_000);
+        int count = 0;
+        long[] ticks = new long[16];
+        int[] mpqs = new int[16];
+        for (Track track : seq.getTracks()) {
+            for (int i = 0; i < track.size(); i++) {
+                MidiEvent event = track.get(i);
+                if (event.getMessage() instanceof MetaMessage mm && mm.getType() == 0x51) {
+                    byte[] d = mm.getData();
+                    if (d.length < 3) continue;
+                    if (count == ticks.length) {
+                        ticks = Arrays.copyOf(ticks, count * 2);
+                        mpqs = Arrays.copyOf(mpqs, count * 2);
+                    }
+                    ticks[count] = event.getTick();
+                    mpqs[count] = ((d[0] & 0xFF) << 16) | ((d[1] & 0xFF) << 8) | (d[2] & 0xFF);
+                    count++;
+                }
+            }
+        }
+        return build(seq.getResolution(), ticks, mpqs, count);
+    }
+
+    // (tick, mpq) 목록으로 구간 표 생성. 순서는 상관없고 같은 tick 이면 나중 것이 남는다
+    static TempoMap build(int resolution, long[] ticks, int[] mpqs, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(ticks[a], ticks[b]));
+
+        long[] segTick = new long[count + 1];
+        long[] segMicros = new long[count + 1];
+        int[] segMpq = new int[count + 1];
+        segMpq[0] = DEFAULT_MPQ;
+        int n = 1;
+        for (int k = 0; k < count; k++) {
+            int i = order[k];
+            long tick = ticks[i];
+            int mpq = mpqs[i] > 0 ? mpqs[i] : DEFAULT_MPQ;
+            if (segTick[n - 1] == tick) { segMpq[n - 1] = mpq; continue; }
+            if (segMpq[n - 1] == mpq) continue;
+            segTick[n] = tick;
+            segMpq[n] = mpq;
+            n++;
+        }
+        for (int i = 1; i < n; i++) segMicros[i] = segMicros[i - 1] + (segTick[i] - segTick[i - 1]) * segMpq[i - 1] / resolution;
+        return new TempoMap(resolution, Arrays.copyOf(segTick, n), Arrays.copyOf(segMicros, n), Arrays.copyOf(segMpq, n));
+    }
+
+    int getResolution() { return resolution; }
+    int segmentCount() { return segTick.length; }
+    long segmentTick(int i) { return segTick[i]; }
+    int segmentMpq(int i) { return segMpq[i]; }
+
+    private int segmentForTick(double tick) {
+        int lo = 0, hi = segTick.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (segTick[mid] <= tick) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private int segmentForMicros(double micros) {
+        int lo = 0, hi = segMicros.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (segMicros[mid] <= micros) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    double tickToMicros(double tick) {
+        int i = segmentForTick(tick);
+        return segMicros[i] + (tick - segTick[i]) * segMpq[i] / resolution;
+    }
+
+    long tickToMicros(long tick) { return (long) tickToMicros((double) tick); }
+
+    double microsToTick(double micros) {
+        int i = segmentForMicros(micros);
+        return segTick[i] + (micros - segMicros[i]) * resolution / segMpq[i];
+    }
+
+    int mpqAt(long tick) { return segMpq[segmentForTick(tick)]; }
+
+    double bpmAt(long tick) { return 60_000_000.0 / mpqAt(tick); }
+}
@@ -0,0 +1,99 @@
+package ai28;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JTable;
+
+// --- 세로 배율: tick <-> 화면 y (하이웨이 뷰 / 눈금자 / 재생 스크롤이 공유) ---
+// 배율 1 에서는 JTable 의 행과 정확히 겹친다: 행 r 의 tick 구간 [t, t + ticksPerRow) 가 y (r*rh, (r+1)*rh] 에 온다.
+// 확대/축소는 행 높이를 바꾸지 않고 pixelsPerTick 만 바꾸므로 JTable 재배치가 없다.
+// 목표 배율을 주면 frame() 이 로그 척도로 부드럽게 따라가며, 기준 tick 이 화면의 같은 자리에 남도록 리스너가 스크롤을 맞춘다.
+// EDT 에서만 쓴다.
+class TickScale {
+    interface Listener { void scaleChanged(); }
+
+    // 한 tick 이 이보다 크게 보일 필요는 없다
+    static final double MAX_PIXELS_PER_TICK = 16;
+    // 전체 높이는 int 좌표 안에 들어와야 한다
+    private static final double MAX_HEIGHT = Integer.MAX_VALUE / 2.0;
+    // 목표 배율까지 남은 비(로그)가 이 시간 상수로 줄어든다
+    private static final double SMOOTHING_NANOS = 70e6;
+
+    private final JTable table;
+    private final ChartTableModel model;
+    private final List<Listener> listeners = new ArrayList<>();
+    private double zoom = 1, targetZoom = 1;
+    private long lastFrameNanos;
+
+    TickScale(JTable table, ChartTableModel model) {
+        this.table = table;
+        this.model = model;
+    }
+
+    void addListener(Listener l) { listeners.add(l); }
+
+    double getZoom() { return zoom; }
+    double getTargetZoom() { return targetZoom; }
+    boolean isAnimating() { return zoom != targetZoom; }
+
+    double pixelsPerTick() { return table.getRowHeight() * zoom / model.getTicksPerRow(); }
+    // 한 행(ticksPerRow) 의 화면 높이
+    double rowPixels() { return table.getRowHeight() * zoom; }
+
+    // y = 0 인 tick (맨 위 행의 윗변)
+    private long topTick() { return model.rowToTick(0) + model.getTicksPerRow(); }
+
+    double tickToY(double tick) { return (topTick() - tick) * pixelsPerTick(); }
+    double yToTick(double y) { return topTick() - y / pixelsPerTick(); }
+
+    // y 가 가리키는 JTable 행 (범위 밖이면 -1)
+    int yToRow(double y) {
+        long tick = (long) Math.floor(yToTick(y));
+        int row = model.getRowCount() - 1 - model.getJudgmentOffset() - (int) Math.floorDiv(tick, model.getTicksPerRow());
+        return row >= 0 && row < model.getRowCount() ? row : -1;
+    }
+
+    int height() { return (int) Math.round((double) model.getRowCount() * rowPixels()); }
+
+    // 전체 차트가 viewportHeight 에 들어오는 배율 ~ 한 tick 이 MAX_PIXELS_PER_TICK 인 배율
+    double minZoom(int viewportHeight) {
+        double full = (double) model.getRowCount() * table.getRowHeight();
+        return full <= 0 ? 1 : Math.min(1, Math.max(1e-6, viewportHeight / full));
+    }
+
+    double maxZoom() {
+        double byTick = MAX_PIXELS_PER_TICK * model.getTicksPerRow() / table.getRowHeight();
+        double byHeight = MAX_HEIGHT / Math.max(1.0, (double) model.getRowCount() * table.getRowHeight());
+        return Math.max(1, Math.min(byTick, byHeight));
+    }
+
+    // 애니메이션 없이 바로 (뷰 전환 등)
+    void setZoom(double z) {
+        targetZoom = z;
+        if (zoom == z) return;
+        zoom = z;
+        fire();
+    }
+
+    void animateTo(double z) {
+        targetZoom = z;
+        lastFrameNanos = 0;
+    }
+
+    // 매 프레임 호출. 목표에 도달했으면 false
+    boolean frame(long nowNanos) {
+        if (zoom == targetZoom) return false;
+        double dt = lastFrameNanos == 0 ? 16e6 : nowNanos - lastFrameNanos;
+        lastFrameNanos = nowNanos;
+        double remaining = Math.log(targetZoom / zoom);
+        double next = zoom * Math.exp(remaining * (1 - Math.exp(-dt / SMOOTHING_NANOS)));
+        zoom = Math.abs(Math.log(targetZoom / next)) < 0.002 ? targetZoom : next;
+        fire();
+        return zoom != targetZoom;
+    }
+
+    private void fire() {
+        for (Listener l : listeners) l.scaleChanged();
+    }
+}
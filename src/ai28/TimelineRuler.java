@@ -0,0 +1,202 @@
+package ai28;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.function.Supplier;
+
+import javax.swing.JComponent;
+import javax.swing.JTable;
+import javax.swing.event.TableModelEvent;
+
+// --- 타임라인 눈금자: JList 행 머리글 대신 직접 그리는 행 머리글 ---
+// 행마다 String 을 만들던 RowHeaderModel 대신, 숫자/기호 글리프를 한 번 그려 둔 이미지(atlas)에서
+// 잘라 붙인다. 글자는 재사용하는 char[] 에 찍으므로 그릴 때 할당이 없다.
+// 왼쪽은 박이 시작하는 행의 "마디.박" (박자 이벤트 기준), 오른쪽은 그 행의 시간 mm:ss.mmm (템포 맵 기준).
+// 세로 위치는 하이웨이 뷰와 같은 TickScale 로 계산하므로 어떤 배율에서도 테이블/하이웨이 뷰와 맞는다.
+// 축소하면 글자가 겹치지 않도록 박 -> 마디만, 시간은 1/2/5 x 10^n 행 간격으로 솎아 낸다.
+// 누르고 끌면 그 시간 구간을 리스너에 알린다 (전체 레인 선택).
+class TimelineRuler extends JComponent {
+    interface Listener { void rangeSelected(long fromTick, long toTick); }
+
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.BOLD, 11);
+    private static final Color BACKGROUND = new Color(20, 20, 20);
+    private static final Color MEASURE_LINE = new Color(150, 150, 150);
+    private static final Color BEAT_LINE = new Color(70, 70, 70);
+    // atlas 의 줄 순서: 마디 / 박 / 시간
+    private static final Color[] GLYPH_COLORS = {new Color(0, 255, 150), new Color(170, 170, 170), Color.GRAY};
+    private static final int MEASURE = 0, BEAT = 1, TIME = 2;
+    private static final String GLYPHS = "0123456789:.";
+    private static final int COLON = 10, DOT = 11;
+    // "9999.16" 과 "mm:ss.mmm" 사이 간격 포함
+    private static final int LABEL_CHARS = 7, TIME_CHARS = 9, PAD = 4;
+    // 박 눈금이 이보다 촘촘하면 마디 눈금만 / 선끼리 이보다 가까우면 생략
+    private static final int MIN_BEAT_SPACING = 6, MIN_LINE_SPACING = 2;
+
+    private final ChartTableModel model;
+    private final TickScale scale;
+    private final Supplier<TempoMap> tempoMap;
+    private final Supplier<MeterMap> meterMap;
+
+    private final BufferedImage atlas;
+    private final int glyphW, glyphH;
+    private final char[] text = new char[24];
+    private final Rectangle clip = new Rectangle();
+    private Listener listener;
+    private long anchorTick;
+
+    TimelineRuler(JTable table, ChartTableModel model, TickScale scale, Supplier<TempoMap> tempoMap, Supplier<MeterMap> meterMap) {
+        this.model = model;
+        this.scale = scale;
+        this.tempoMap = tempoMap;
+        this.meterMap = meterMap;
+        setOpaque(true);
+        setBackground(BACKGROUND);
+
+        // 고정폭 글꼴이므로 글리프 칸 크기는 하나로 충분하다
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D pg = probe.createGraphics();
+        FontMetrics fm = pg.getFontMetrics(FONT);
+        pg.dispose();
+        glyphW = fm.charWidth('0');
+        glyphH = fm.getAscent() + fm.getDescent();
+        atlas = new BufferedImage(GLYPHS.length() * glyphW, GLYPH_COLORS.length * glyphH, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D ag = atlas.createGraphics();
+        ag.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        ag.setFont(FONT);
+        for (int style = 0; style < GLYPH_COLORS.length; style++) {
+            ag.setColor(GLYPH_COLORS[style]);
+            for (int i = 0; i < GLYPHS.length(); i++) {
+                ag.drawString(GLYPHS.substring(i, i + 1), i * glyphW, style * glyphH + fm.getAscent());
+            }
+        }
+        ag.dispose();
+
+        // 행 수 / 행 높이 / 배율이 바뀌면 전체 배치가 바뀐다. 노트 편집은 눈금자와 무관
+        model.addTableModelListener(e -> {
+            if (e.getFirstRow() == TableModelEvent.HEADER_ROW || e.getLastRow() == Integer.MAX_VALUE) {
+                revalidate();
+                repaint();
+            }
+        });
+        table.addPropertyChangeListener("rowHeight", e -> { revalidate(); repaint(); });
+        scale.addListener(() -> { revalidate(); repaint(); });
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override public void mousePressed(MouseEvent e) {
+                anchorTick = tickAt(e.getY());
+                fireRange(anchorTick);
+            }
+            @Override public void mouseDragged(MouseEvent e) { fireRange(tickAt(e.getY())); }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    void setListener(Listener listener) { this.listener = listener; }
+
+    private long tickAt(int y) { return Math.max(0, (long) Math.floor(scale.yToTick(y))); }
+
+    // 누른 자리와 지금 자리를 모두 포함하는 [from, to)
+    private void fireRange(long tick) {
+        if (listener != null) listener.rangeSelected(Math.min(anchorTick, tick), Math.max(anchorTick, tick) + 1);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(PAD * 3 + (LABEL_CHARS + TIME_CHARS) * glyphW, scale.height());
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.getClipBounds(clip);
+        if (clip.isEmpty()) clip.setBounds(0, 0, getWidth(), getHeight());
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        if (model.getRowCount() == 0) return;
+        int tpr = model.getTicksPerRow();
+        double ppt = scale.pixelsPerTick();
+        double rowPixels = scale.rowPixels();
+        long fromTick = Math.max(0, (long) Math.floor(scale.yToTick(clip.y + clip.height + glyphH)));
+        long toTick = (long) Math.ceil(scale.yToTick(clip.y - glyphH));
+        TempoMap tempo = tempoMap.get();
+        MeterMap meter = meterMap.get();
+        int width = getWidth();
+        int timeX = width - PAD - TIME_CHARS * glyphW;
+
+        // 마디 / 박: 아래(앞 시간)에서 위로 올라가며, 앞 글자와 겹치지 않을 때만 쓴다
+        boolean beats = meter.getResolution() * ppt >= MIN_BEAT_SPACING;
+        int lastLineY = Integer.MAX_VALUE, lastLabelY = Integer.MAX_VALUE;
+        // 많이 축소하면 같은 픽셀에 마디가 여럿 오므로 다음 눈금은 MIN_LINE_SPACING 위부터 찾는다
+        for (long t = beats ? meter.nextBeatTick(fromTick) : meter.nextMeasureTick(fromTick); t <= toTick; ) {
+            int y = (int) Math.round(scale.tickToY(t)) - 1;
+            int beatIndex = beats ? meter.beatAt(t) : 0;
+            long next = Math.max(t + 1, (long) Math.ceil(scale.yToTick(y - MIN_LINE_SPACING + 0.5)));
+            long current = t;
+            t = beats ? meter.nextBeatTick(next) : meter.nextMeasureTick(next);
+            if (lastLineY - y >= MIN_LINE_SPACING) {
+                g.setColor(beatIndex == 0 ? MEASURE_LINE : BEAT_LINE);
+                if (beatIndex == 0) g.drawLine(0, y, width, y);
+                else g.drawLine(width - PAD * 2, y, width, y);
+                lastLineY = y;
+            }
+            int top = labelTop(y, rowPixels);
+            if (lastLabelY - top < glyphH) continue;
+            int len = formatNumber(meter.measureAt(current) + 1, 1, 0);
+            if (beatIndex != 0) {
+                text[len++] = '.';
+                len = formatNumber(beatIndex + 1, 1, len);
+            }
+            drawText(g, len, PAD, top, beatIndex == 0 ? MEASURE : BEAT);
+            lastLabelY = top;
+        }
+
+        // 시간: 글자 높이보다 넓은 1/2/5 x 10^n 행 간격
+        long rows = 1;
+        for (int mantissa = 1; rows * rowPixels < glyphH + 2; ) {
+            if (mantissa == 2) { rows = rows / 2 * 5; mantissa = 5; }
+            else { rows *= 2; mantissa = mantissa == 1 ? 2 : 1; }
+        }
+        long step = rows * tpr;
+        for (long t = (fromTick + step - 1) / step * step; t <= toTick; t += step) {
+            drawText(g, formatTime(tempo.tickToMicros(t)), timeX, labelTop((int) Math.round(scale.tickToY(t)) - 1, rowPixels), TIME);
+        }
+    }
+
+    // tick 의 y(행 아랫변)에 붙는 글자 윗변: 행이 글자보다 크면 행 가운데, 아니면 선 바로 위
+    private int labelTop(int y, double rowPixels) {
+        return rowPixels >= glyphH ? y + 1 - (int) ((rowPixels + glyphH) / 2) : y - glyphH;
+    }
+
+    // text[0, len) 를 atlas 에서 잘라 붙인다
+    private void drawText(Graphics g, int len, int x, int y, int style) {
+        int sy = style * glyphH;
+        for (int i = 0; i < len; i++, x += glyphW) {
+            char c = text[i];
+            int glyph = c == ':' ? COLON : c == '.' ? DOT : c - '0';
+            int sx = glyph * glyphW;
+            g.drawImage(atlas, x, y, x + glyphW, y + glyphH, sx, sy, sx + glyphW, sy + glyphH, null);
+        }
+    }
+
+    // text[pos...] 에 최소 minDigits 자리로 쓰고 끝 위치를 돌려준다
+    private int formatNumber(long value, int minDigits, int pos) {
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) digits++;
+        digits = Math.max(digits, minDigits);
+        for (int i = pos + digits - 1; i >= pos; i--, value /= 10) text[i] = (char) ('0' + value % 10);
+        return pos + digits;
+    }
+
+    // mm:ss.mmm (60분 이상이면 분 자리가 늘어난다)
+    private int formatTime(long micros) {
+        long millis = micros / 1000;
+        int len = formatNumber(millis / 60_000, 2, 0);
+        text[len++] = ':';
+        len = formatNumber(millis / 1000 % 60, 2, len);
+        text[len++] = '.';
+        return formatNumber(millis % 1000, 3, len);
+    }
+}
@@ -0,0 +1,97 @@
+package ai28;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+
+// --- 트랙 / 채널 골라 가져오기 ---
+// MidiFileScanner 가 훑어 둔 (트랙, 채널) 쌍마다 한 줄: 가져오기 여부 / 트랙 번호 / 이름 / 채널 / 노트 수.
+// 체크한 쌍만 노트가 되고, 체크한 채널이 없는 트랙은 해석하지 않는다. 재생은 여전히 모든 트랙으로 한다.
+final class TrackImportDialog {
+    private TrackImportDialog() {}
+
+    private static final String[] COLUMNS = {"가져오기", "트랙", "이름", "채널", "노트"};
+
+    private static final class SourceModel extends AbstractTableModel {
+        final MidiFileScanner scanner;
+        final int[] masks;
+        // 줄 하나 = (트랙, 채널)
+        final int[] rowTrack, rowChannel;
+
+        SourceModel(MidiFileScanner scanner) {
+            this.scanner = scanner;
+            this.masks = scanner.defaultSelection();
+            int n = scanner.noteSourceCount();
+            rowTrack = new int[n];
+            rowChannel = new int[n];
+            int r = 0;
+            for (int t = 0; t < scanner.trackCount(); t++) {
+                for (int bits = scanner.track(t).channelMask(); bits != 0; bits &= bits - 1) {
+                    rowTrack[r] = t;
+                    rowChannel[r++] = Integer.numberOfTrailingZeros(bits);
+                }
+            }
+        }
+
+        int selectedNotes() {
+            int sum = 0;
+            for (int r = 0; r < rowTrack.length; r++) if (isChecked(r)) sum += scanner.track(rowTrack[r]).noteCounts[rowChannel[r]];
+            return sum;
+        }
+
+        private boolean isChecked(int r) { return (masks[rowTrack[r]] >>> rowChannel[r] & 1) != 0; }
+
+        @Override public int getRowCount() { return rowTrack.length; }
+        @Override public int getColumnCount() { return COLUMNS.length; }
+        @Override public String getColumnName(int c) { return COLUMNS[c]; }
+        @Override public Class<?> getColumnClass(int c) { return c == 0 ? Boolean.class : c == 2 ? String.class : Integer.class; }
+        @Override public boolean isCellEditable(int r, int c) { return c == 0; }
+
+        @Override
+        public Object getValueAt(int r, int c) {
+            MidiFileScanner.TrackInfo info = scanner.track(rowTrack[r]);
+            return switch (c) {
+                case 0 -> isChecked(r);
+                case 1 -> info.index + 1;
+                case 2 -> rowChannel[r] == MidiFileScanner.DRUM_CHANNEL ? (info.name + " (타악기)").trim() : info.name;
+                case 3 -> rowChannel[r] + 1;
+                default -> info.noteCounts[rowChannel[r]];
+            };
+        }
+
+        @Override
+        public void setValueAt(Object value, int r, int c) {
+            if (Boolean.TRUE.equals(value)) masks[rowTrack[r]] |= 1 << rowChannel[r];
+            else masks[rowTrack[r]] &= ~(1 << rowChannel[r]);
+            fireTableRowsUpdated(r, r);
+        }
+    }
+
+    // 트랙별 채널 마스크 (MidiChartReader.read(scanner, masks, ...) 에 그대로). 취소하면 null
+    static int[] choose(Component parent, MidiFileScanner scanner, String fileName) {
+        SourceModel model = new SourceModel(scanner);
+        JTable table = new JTable(model);
+        table.getColumnModel().getColumn(0).setMaxWidth(70);
+        table.getColumnModel().getColumn(1).setMaxWidth(50);
+        table.getColumnModel().getColumn(3).setMaxWidth(50);
+        table.getColumnModel().getColumn(4).setMaxWidth(80);
+        JLabel summary = new JLabel();
+        Runnable updateSummary = () -> summary.setText(" 가져올 노트 " + model.selectedNotes() + "개 (트랙 " + scanner.trackCount() + "개 중에서)");
+        model.addTableModelListener(e -> updateSummary.run());
+        updateSummary.run();
+
+        JPanel panel = new JPanel(new BorderLayout(0, 6));
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setPreferredSize(new Dimension(460, Math.min(360, 40 + model.getRowCount() * table.getRowHeight())));
+        panel.add(scroll, BorderLayout.CENTER);
+        panel.add(summary, BorderLayout.SOUTH);
+
+        int answer = JOptionPane.showConfirmDialog(parent, panel, "가져올 트랙 / 채널 - " + fileName,
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (table.isEditing()) table.getCellEditor().stopCellEditing();
+        return answer == JOptionPane.OK_OPTION ? model.masks : null;
+    }
+}